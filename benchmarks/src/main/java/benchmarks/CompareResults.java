@@ -0,0 +1,70 @@
+package benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Prints a side-by-side comparison of two JMH JSON result files (run with {@code -rf json -rff <file>}).
+ * Usage: {@code java -cp target/benchmarks.jar benchmarks.CompareResults baseline.json candidate.json}
+ */
+public final class CompareResults {
+
+    private CompareResults() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: CompareResults <baseline.json> <candidate.json>");
+            System.exit(2);
+        }
+        Map<String, JsonNode> baseline = load(new File(args[0]));
+        Map<String, JsonNode> candidate = load(new File(args[1]));
+
+        System.out.printf("%-80s %16s %16s %8s%n", "Benchmark", "Baseline", "Candidate", "Ratio");
+        for (Map.Entry<String, JsonNode> entry : baseline.entrySet()) {
+            JsonNode before = entry.getValue().get("primaryMetric");
+            JsonNode after = candidate.containsKey(entry.getKey()) ? candidate.get(entry.getKey()).get("primaryMetric") : null;
+            String unit = before.get("scoreUnit").asText();
+            double beforeScore = before.get("score").asDouble();
+            if (after == null) {
+                System.out.printf("%-80s %16s %16s %8s%n", entry.getKey(), format(before), "missing", "-");
+                continue;
+            }
+            double ratio = after.get("score").asDouble() / beforeScore;
+            // For time-per-operation units a ratio below 1 is an improvement, for throughput units above 1
+            System.out.printf("%-80s %16s %16s %7.2fx%s%n", entry.getKey(), format(before), format(after), ratio,
+                    unit.endsWith("/op") ? "" : " (throughput)");
+        }
+        for (String key : candidate.keySet()) {
+            if (!baseline.containsKey(key)) {
+                System.out.printf("%-80s %16s %16s %8s%n", key, "missing", format(candidate.get(key).get("primaryMetric")), "-");
+            }
+        }
+    }
+
+    private static Map<String, JsonNode> load(File file) throws IOException {
+        Map<String, JsonNode> results = new TreeMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(result.get("benchmark").asText());
+            JsonNode params = result.get("params");
+            if (params != null) {
+                List<String> names = new ArrayList<>();
+                params.fieldNames().forEachRemaining(names::add);
+                Collections.sort(names);
+                for (String name : names) {
+                    key.append(' ').append(name).append('=').append(params.get(name).asText());
+                }
+            }
+            results.put(key.toString(), result);
+        }
+        return results;
+    }
+
+    private static String format(JsonNode metric) {
+        return String.format("%.3f %s", metric.get("score").asDouble(), metric.get("scoreUnit").asText());
+    }
+}
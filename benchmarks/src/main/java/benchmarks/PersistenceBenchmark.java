@@ -0,0 +1,62 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import schedule_manager.Schedule;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON round trips of the schedule file over schedule size.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PersistenceBenchmark {
+
+    @Param({"365", "3650", "36500"})
+    int entries;
+
+    private Path directory;
+    private Schedule writeSchedule;
+    private Schedule readSchedule;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("schedule-bench");
+        writeSchedule = new Schedule(directory.resolve("write.json").toString());
+        writeSchedule.setSchedule(SyntheticData.history(20, entries));
+
+        Schedule source = new Schedule(directory.resolve("read.json").toString());
+        source.setSchedule(SyntheticData.history(20, entries));
+        source.serialize();
+        readSchedule = new Schedule(directory.resolve("read.json").toString());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public Schedule serialize() {
+        writeSchedule.serialize();
+        return writeSchedule;
+    }
+
+    @Benchmark
+    public Schedule deserialize() {
+        readSchedule.deserialize();
+        return readSchedule;
+    }
+}
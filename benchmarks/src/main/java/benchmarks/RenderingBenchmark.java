@@ -0,0 +1,104 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import schedule_manager.Content;
+import visualization.CalendarImageGenerator;
+import visualization.CalendarRenderPipeline;
+import visualization.SvgCalendarRenderer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calendar rendering and PNG encoding for one month and for a whole year: sequentially, as indexed PNGs, as SVG and
+ * through the parallel pipeline.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class RenderingBenchmark {
+
+    @Param({"8"})
+    int people;
+
+    private Path directory;
+    private CalendarImageGenerator generator;
+    private CalendarImageGenerator indexedGenerator;
+    private SvgCalendarRenderer svgRenderer;
+    private Map<LocalDate, Content> schedule;
+    private final YearMonth month = YearMonth.of(2024, 3);
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("render-bench");
+        generator = new CalendarImageGenerator(SyntheticData.config(people));
+        indexedGenerator = new CalendarImageGenerator(SyntheticData.config(people));
+        indexedGenerator.setIndexedPng(true);
+        svgRenderer = new SvgCalendarRenderer(SyntheticData.config(people));
+        schedule = SyntheticData.history(people, 366);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public Path oneMonth() throws IOException {
+        Path output = directory.resolve("month.png");
+        generator.generateCalendarImage(schedule, month.getYear(), month.getMonth(), output.toString());
+        return output;
+    }
+
+    @Benchmark
+    public Path oneYear() throws IOException {
+        Path output = null;
+        for (int m = 1; m <= 12; m++) {
+            YearMonth current = YearMonth.of(2024, m);
+            output = directory.resolve(m + ".png");
+            generator.generateCalendarImage(schedule, current.getYear(), current.getMonth(), output.toString());
+        }
+        return output;
+    }
+
+    @Benchmark
+    public Path oneYearIndexed() throws IOException {
+        Path output = null;
+        for (int m = 1; m <= 12; m++) {
+            YearMonth current = YearMonth.of(2024, m);
+            output = directory.resolve(m + ".png");
+            indexedGenerator.generateCalendarImage(schedule, current.getYear(), current.getMonth(), output.toString());
+        }
+        return output;
+    }
+
+    @Benchmark
+    public Path oneYearSvg() throws IOException {
+        Path output = null;
+        for (int m = 1; m <= 12; m++) {
+            output = svgRenderer.render(schedule, YearMonth.of(2024, m), directory.resolve(m + ".svg"));
+        }
+        return output;
+    }
+
+    @Benchmark
+    public Path oneYearPipeline() throws IOException {
+        try (CalendarRenderPipeline pipeline = new CalendarRenderPipeline(generator)) {
+            return pipeline.renderAll(schedule, YearMonth.of(2024, 1), YearMonth.of(2024, 12),
+                    current -> directory.resolve(current.getMonthValue() + ".png")).get(11);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import schedule_manager.ContentScheduler;
+import schedule_manager.Schedule;
+
+import java.time.YearMonth;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Month generation and tally rebuilds over team size x history length.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchedulingBenchmark {
+
+    @Param({"5", "50", "500"})
+    int people;
+
+    @Param({"0", "365", "3650"})
+    int historyDays;
+
+    private Schedule schedule;
+    private ContentScheduler scheduler;
+    private final YearMonth month = YearMonth.of(2025, 3);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        schedule = SyntheticData.fillHistory(new Schedule(), people, historyDays);
+        scheduler = new ContentScheduler(schedule, SyntheticData.people(people), SyntheticData.WEEKLY_SCHEDULES, 0,
+                SyntheticData.HISTORY_END);
+    }
+
+    @Benchmark
+    public Schedule generateFullMonthSchedule() {
+        scheduler.generateFullMonthSchedule(month);
+        return schedule;
+    }
+
+    @Benchmark
+    public ContentScheduler populateCountMap() {
+        scheduler.populateCountMap();
+        return scheduler;
+    }
+}
@@ -0,0 +1,62 @@
+package benchmarks;
+
+import config.Config;
+import schedule_manager.Content;
+import schedule_manager.ContentScheduler;
+import schedule_manager.Schedule;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Deterministic synthetic teams and schedules for the benchmarks.
+ */
+public final class SyntheticData {
+
+    public static final List<String> WEEKLY_SCHEDULES = List.of(
+            "POST Monday, RIASSUNTO Tuesday, STORIA Wednesday, STORIA Thursday, LOCANDINA Friday, REEL Saturday, STORIA Sunday",
+            "POST Monday, RIASSUNTO Tuesday, STORIA Wednesday, TESTIMONIANZA Thursday, LOCANDINA Friday, REEL Saturday, STORIA Sunday"
+    );
+
+    public static final LocalDate HISTORY_END = LocalDate.of(2024, 12, 31);
+
+    private SyntheticData() {
+    }
+
+    public static List<String> people(int count) {
+        List<String> people = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            people.add("Maker" + i);
+        }
+        return people;
+    }
+
+    public static Config config(int peopleCount) {
+        Random random = new Random(42);
+        List<Map<String, String>> peopleColors = new ArrayList<>();
+        for (String name : people(peopleCount)) {
+            Map<String, String> entry = new HashMap<>();
+            entry.put("name", name);
+            entry.put("color", String.format("%06X", random.nextInt(0x1000000)));
+            peopleColors.add(entry);
+        }
+        Map<String, String> formatting = new HashMap<>();
+        formatting.put("font", "SansSerif");
+        return new Config(peopleColors, WEEKLY_SCHEDULES, "Monday", null, formatting);
+    }
+
+    /**
+     * Fills {@code schedule} with {@code days} days of history ending on {@link #HISTORY_END}.
+     */
+    public static Schedule fillHistory(Schedule schedule, int peopleCount, int days) {
+        if (days == 0) return schedule;
+        LocalDate from = HISTORY_END.minusDays(days - 1);
+        ContentScheduler scheduler = new ContentScheduler(new Schedule(), people(peopleCount), WEEKLY_SCHEDULES, 0, from);
+        scheduler.stream(from, HISTORY_END).forEach(content -> schedule.addEntry(content.getDate(), content));
+        return schedule;
+    }
+
+    public static Map<LocalDate, Content> history(int peopleCount, int days) {
+        return fillHistory(new Schedule(), peopleCount, days).getSchedule();
+    }
+}
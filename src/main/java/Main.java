@@ -1,59 +1,90 @@
 import config.Config;
 import schedule_manager.ContentScheduler;
 import schedule_manager.Schedule;
+import schedule_manager.SchedulePersistence;
 import visualization.CalendarImageGenerator;
+import visualization.CalendarRenderPipeline;
+import visualization.CalendarRenderer;
+import visualization.RenderManifest;
+import visualization.SvgCalendarRenderer;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.time.Month;
 import java.time.Year;
 import java.time.YearMonth;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 public class Main {
 
+    /**
+     * Usage: {@code Main [png|svg]}; calendars are PNG images unless {@code svg} is given.
+     */
     public static void main(String[] args) throws IOException {
         YearMonth startMonth = YearMonth.of(2025, 2);
         YearMonth endMonth = YearMonth.of(2025, 6);
+        String format = args.length > 0 ? args[0] : "png";
         Schedule schedule = new Schedule("schedule_rcy.json");
         Config config = new Config("config_rcy.json");
-        generateScheduleAndCalendar(config, schedule, startMonth, endMonth);
+        generateScheduleAndCalendar(config, schedule, startMonth, endMonth, format);
     }
 
-    static void wholeYear(Config config, Schedule schedule, int year) throws IOException {
+    static void wholeYear(Config config, Schedule schedule, int year, String format) throws IOException {
         YearMonth startMonth = YearMonth.of(year, 1);
         YearMonth endMonth = YearMonth.of(year, 12);
-        generateScheduleAndCalendar(config, schedule, startMonth, endMonth);
+        generateScheduleAndCalendar(config, schedule, startMonth, endMonth, format);
     }
 
-    static void generateScheduleAndCalendar(Config config, Schedule schedule, YearMonth startMonth, YearMonth endMonth) throws IOException {
-        ContentScheduler contentScheduler = new ContentScheduler(schedule, config.getPeople(), config.getWeeklySchedules(), 0);
+    static CalendarRenderer createRenderer(Config config, String format) {
+        switch (format.toLowerCase()) {
+            case "png" -> {
+                CalendarImageGenerator generator = new CalendarImageGenerator(config);
+                generator.setIndexedPng(true);
+                return generator;
+            }
+            case "svg" -> {
+                return new SvgCalendarRenderer(config);
+            }
+            default -> throw new IllegalArgumentException("Unknown calendar format " + format + ", expected png or svg");
+        }
+    }
+
+    static void generateScheduleAndCalendar(Config config, Schedule schedule, YearMonth startMonth, YearMonth endMonth, String format) throws IOException {
+        CalendarRenderer renderer = createRenderer(config, format);
+        ContentScheduler contentScheduler = new ContentScheduler(schedule, config.compiled());
 
         // Validate input
         if (startMonth.isAfter(endMonth)) {
             throw new IllegalArgumentException("Start month must be before or equal to end month");
         }
 
-        // Generate schedule for the specified period
-        for (YearMonth currentMonth = startMonth; !currentMonth.isAfter(endMonth); currentMonth = currentMonth.plusMonths(1)) {
-            contentScheduler.generateFullMonthSchedule(currentMonth);
-            contentScheduler.printWeightDistribution();
-            System.out.println(schedule.printScheduleMonth(currentMonth));
+        // Generate schedule for the specified period, saving each month in the background so an interrupted run
+        // keeps its progress
+        try (SchedulePersistence persistence = new SchedulePersistence(schedule)) {
+            CompletableFuture<Path> saved = null;
+            for (YearMonth currentMonth = startMonth; !currentMonth.isAfter(endMonth); currentMonth = currentMonth.plusMonths(1)) {
+                contentScheduler.generateFullMonthSchedule(currentMonth);
+                contentScheduler.printWeightDistribution();
+                System.out.println(schedule.printScheduleMonth(currentMonth));
+                saved = persistence.save();
+            }
+            if (saved != null) {
+                System.out.println("Schedule saved to " + saved.join());
+            }
         }
-        schedule.saveToFile();
 
-        // Generate calendar images for the specified period
-        CalendarImageGenerator generator = new CalendarImageGenerator(config);
-        for (YearMonth currentMonth = startMonth; !currentMonth.isAfter(endMonth); currentMonth = currentMonth.plusMonths(1)) {
-            String filename = String.format("schedule_images/%d.%s_%d_calendar.png",
+        // Generate calendars for the specified period, rendering and writing months in parallel
+        try (CalendarRenderPipeline pipeline = new CalendarRenderPipeline(renderer)) {
+            // Only months whose entries or config changed since the last run are rendered again
+            pipeline.setRenderManifest(new RenderManifest(Path.of("schedule_images/render-manifest.json")));
+            pipeline.renderAll(schedule.getSchedule(), startMonth, endMonth, currentMonth -> Path.of(String.format(
+                    "schedule_images/%d.%s_%d_calendar.%s",
                     currentMonth.getMonthValue(),
                     currentMonth.getMonth().toString().toLowerCase(),
-                    currentMonth.getYear());
-            generator.generateCalendarImage(
-                    schedule.getSchedule(),
                     currentMonth.getYear(),
-                    currentMonth.getMonth(),
-                    filename
-            );
+                    renderer.extension())));
         }
     }
 }
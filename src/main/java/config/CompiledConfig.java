@@ -0,0 +1,155 @@
+package config;
+
+import schedule_manager.WeeklyTemplate;
+
+import java.awt.Color;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+/**
+ * Immutable, validated form of a {@link Config}: people with stable ids, decoded colors, the parsed first weekday,
+ * compiled weekly templates and the font. Built once per loaded config and safe to share between threads, so
+ * schedulers and renderers never parse config strings themselves.
+ */
+public final class CompiledConfig {
+
+    private final List<String> people;
+    private final Map<String, Integer> personIds;
+    private final Color[] colors;
+    private final DayOfWeek firstWeekday;
+    private final List<WeeklyTemplate> weeklyTemplates;
+    private final LocalDate rotationAnchor;
+    private final String fontName;
+
+    private CompiledConfig(List<String> people, Color[] colors, DayOfWeek firstWeekday,
+                           List<WeeklyTemplate> weeklyTemplates, LocalDate rotationAnchor, String fontName) {
+        this.people = List.copyOf(people);
+        this.personIds = new HashMap<>(people.size() * 2);
+        for (int id = 0; id < people.size(); id++) {
+            personIds.put(people.get(id), id);
+        }
+        this.colors = colors;
+        this.firstWeekday = firstWeekday;
+        this.weeklyTemplates = weeklyTemplates;
+        this.rotationAnchor = rotationAnchor;
+        this.fontName = fontName;
+    }
+
+    /**
+     * Validates and compiles {@code config}.
+     *
+     * @throws IllegalArgumentException if a person has no name or an invalid color, a name appears twice, or the
+     *                                  first weekday, a weekly schedule or the rotation anchor cannot be parsed
+     */
+    public static CompiledConfig of(Config config) {
+        List<Map<String, String>> peopleColors = config.getPeopleColors();
+        if (peopleColors == null || peopleColors.isEmpty()) {
+            throw new IllegalArgumentException("Config must list at least one person");
+        }
+
+        List<String> people = new ArrayList<>(peopleColors.size());
+        Color[] colors = new Color[peopleColors.size()];
+        Set<String> seen = new HashSet<>();
+        for (Map<String, String> person : peopleColors) {
+            String name = person.get("name");
+            if (name == null || name.isBlank()) {
+                throw new IllegalArgumentException("Person without a name in config: " + person);
+            }
+            if (!seen.add(name)) {
+                throw new IllegalArgumentException("Person '" + name + "' appears more than once in config");
+            }
+            colors[people.size()] = decodeColor(name, person.get("color"));
+            people.add(name);
+        }
+
+        return new CompiledConfig(
+                people,
+                colors,
+                parseWeekday(config.getFirstWeekday()),
+                WeeklyTemplate.compileAll(config.getWeeklySchedules()),
+                parseAnchor(config.getRotationAnchor()),
+                config.getFormatting() == null ? null : config.getFormatting().get("font"));
+    }
+
+    private static Color decodeColor(String name, String hex) {
+        if (hex == null) {
+            throw new IllegalArgumentException("Person '" + name + "' has no color");
+        }
+        try {
+            return Color.decode("#" + hex);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid color '" + hex + "' for person '" + name + "'");
+        }
+    }
+
+    private static DayOfWeek parseWeekday(String firstWeekday) {
+        if (firstWeekday == null) {
+            throw new IllegalArgumentException("Config has no firstWeekday");
+        }
+        try {
+            return DayOfWeek.valueOf(firstWeekday.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown firstWeekday '" + firstWeekday + "'");
+        }
+    }
+
+    private static LocalDate parseAnchor(String rotationAnchor) {
+        if (rotationAnchor == null) return null;
+        try {
+            return LocalDate.parse(rotationAnchor);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid rotationAnchor '" + rotationAnchor + "', expected yyyy-MM-dd");
+        }
+    }
+
+    /**
+     * People in config order; a person's id is their index in this list.
+     */
+    public List<String> people() {
+        return people;
+    }
+
+    /**
+     * Returns the id of {@code person}, or -1 if they are not in the config.
+     */
+    public int idOf(String person) {
+        Integer id = person == null ? null : personIds.get(person);
+        return id == null ? -1 : id;
+    }
+
+    public Color colorOf(int id) {
+        return colors[id];
+    }
+
+    /**
+     * Returns the color of {@code person}, or null if they are not in the config.
+     */
+    public Color colorOf(String person) {
+        int id = idOf(person);
+        return id < 0 ? null : colors[id];
+    }
+
+    public DayOfWeek firstWeekday() {
+        return firstWeekday;
+    }
+
+    public List<WeeklyTemplate> weeklyTemplates() {
+        return weeklyTemplates;
+    }
+
+    /**
+     * Date on which the first weekly template is in effect, or null if the rotation is not anchored.
+     */
+    public LocalDate rotationAnchor() {
+        return rotationAnchor;
+    }
+
+    /**
+     * Font family for rendering, or null if the config sets none.
+     */
+    public String fontName() {
+        return fontName;
+    }
+}
@@ -2,17 +2,14 @@ package config;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
 import java.io.File;
 import java.io.IOException;
 import java.net.URISyntaxException;
-import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
 
@@ -22,11 +19,14 @@ public class Config {
     List<String> people;
     List<String> weeklySchedules;
     String firstWeekday;
+    String rotationAnchor;
     Map<String, String> formatting;
 
     @JsonIgnore
     File file;
 
+    private volatile CompiledConfig compiled;
+
     public Config(String filePath) {
         this.file = new File(filePath);
         if (!file.exists()) throw new IllegalArgumentException("Config file does not exist");
@@ -38,26 +38,21 @@ public class Config {
             @JsonProperty("peopleColors") List<Map<String, String>> peopleColors,
             @JsonProperty("weeklySchedules") List<String> weeklySchedules,
             @JsonProperty("firstWeekday") String firstWeekday,
+            @JsonProperty("rotationAnchor") String rotationAnchor,
             @JsonProperty("formatting") Map<String, String> formatting) {
 
         this.peopleColors = peopleColors;
         this.people = peopleColors.stream().map(o -> o.get("name")).toList();
         this.weeklySchedules = weeklySchedules;
         this.firstWeekday = firstWeekday;
+        this.rotationAnchor = rotationAnchor;
         this.formatting = formatting;
     }
 
     public void serialize() {
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.registerModule(new JavaTimeModule());
-        mapper.enable(SerializationFeature.INDENT_OUTPUT);  // Pretty-print JSON output
-
         try {
-            // Convert the Config object to JSON string
-            String json = mapper.writeValueAsString(this);
-
-            // Write JSON string to the specified file
-            Files.writeString(file.toPath(), json);
+            // Stream the Config object as pretty-printed JSON to the specified file
+            ConfigCodec.write(this, file.toPath());
 
             System.out.println("Config successfully serialized to " + file.getPath());
         } catch (JsonProcessingException e) {
@@ -70,9 +65,6 @@ public class Config {
     }
 
     public void deserialize() {
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.registerModule(new JavaTimeModule());
-
         try {
             // If the file does not exist, skip deserialization
             if (!file.exists()) {
@@ -80,18 +72,10 @@ public class Config {
                 return;
             }
 
-            // Read JSON content from the file
-            String json = Files.readString(file.toPath());
-
-            // Deserialize the JSON string into the current Config object
-            Config configData = mapper.readValue(json, new TypeReference<Config>() {});
-
-            // Copy deserialized data to the current object's fields
-            this.peopleColors = configData.peopleColors;
-            this.weeklySchedules = configData.weeklySchedules;
-            this.firstWeekday = configData.firstWeekday;
-            this.formatting = configData.formatting;
-            this.people = this.peopleColors.stream().map(o -> o.get("name")).toList();
+            // Deserialize the file into a Config object and copy its data to the current object's fields
+            copyFrom(ConfigCodec.read(file.toPath()));
+            // Validate and compile once here rather than on first use by a scheduler or renderer
+            compiled();
 
             System.out.println("Config successfully deserialized from " + file.getPath());
         } catch (JsonProcessingException e) {
@@ -103,12 +87,57 @@ public class Config {
         }
     }
 
+    /**
+     * Re-reads the file and returns what changed. If the file cannot be read the current values are kept.
+     */
+    public ConfigDelta reload() throws IOException {
+        Config configData = ConfigCodec.read(file.toPath());
+        CompiledConfig compiledData = CompiledConfig.of(configData);
+        ConfigDelta delta = ConfigDelta.between(this, configData);
+        copyFrom(configData);
+        this.compiled = compiledData;
+        return delta;
+    }
+
+    private void copyFrom(Config configData) {
+        this.peopleColors = configData.peopleColors;
+        this.weeklySchedules = configData.weeklySchedules;
+        this.firstWeekday = configData.firstWeekday;
+        this.rotationAnchor = configData.rotationAnchor;
+        this.formatting = configData.formatting;
+        this.people = this.peopleColors.stream().map(o -> o.get("name")).toList();
+        this.compiled = null;
+    }
+
+    /**
+     * Returns the validated, immutable form of this config, compiling it on first use after a load or change.
+     *
+     * @throws IllegalArgumentException if the config is invalid
+     */
+    public CompiledConfig compiled() {
+        CompiledConfig result = compiled;
+        if (result == null) {
+            result = CompiledConfig.of(this);
+            compiled = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the file this config was read from, or null if it was built in memory.
+     */
+    @JsonIgnore
+    public Path getPath() {
+        return file == null ? null : file.toPath();
+    }
+
     public List<String> getPeople() {
         return people;
     }
 
     public void setPeople(List<String> people) {
         this.people = people;
+        this.compiled = null;
     }
 
     public List<Map<String, String>> getPeopleColors() {
@@ -117,6 +146,7 @@ public class Config {
 
     public void setPeopleColors(List<Map<String, String>> peopleColors) {
         this.peopleColors = peopleColors;
+        this.compiled = null;
     }
 
     public List<String> getWeeklySchedules() {
@@ -125,6 +155,7 @@ public class Config {
 
     public void setWeeklySchedules(List<String> weeklySchedules) {
         this.weeklySchedules = weeklySchedules;
+        this.compiled = null;
     }
 
     public String getFirstWeekday() {
@@ -133,6 +164,20 @@ public class Config {
 
     public void setFirstWeekday(String firstWeekday) {
         this.firstWeekday = firstWeekday;
+        this.compiled = null;
+    }
+
+    /**
+     * ISO date on which the first weekly schedule is in effect, or null to anchor the rotation to the first generated month.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public String getRotationAnchor() {
+        return rotationAnchor;
+    }
+
+    public void setRotationAnchor(String rotationAnchor) {
+        this.rotationAnchor = rotationAnchor;
+        this.compiled = null;
     }
 
     public Map<String, String> getFormatting() {
@@ -141,6 +186,7 @@ public class Config {
 
     public void setFormatting(Map<String, String> formatting) {
         this.formatting = formatting;
+        this.compiled = null;
     }
 
     @Override
@@ -152,6 +198,8 @@ public class Config {
         builder.append(weeklySchedules);
         builder.append(", firstWeekday=");
         builder.append(firstWeekday);
+        builder.append(", rotationAnchor=");
+        builder.append(rotationAnchor);
         builder.append(", formatting=");
         builder.append(formatting);
 
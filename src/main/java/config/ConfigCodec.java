@@ -0,0 +1,36 @@
+package config;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import utils.Json;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads and writes config files through a pre-built, thread-safe reader and pretty-printing writer.
+ */
+public final class ConfigCodec {
+
+    private static final ObjectReader CONFIG_READER = Json.MAPPER.readerFor(Config.class);
+    private static final ObjectWriter CONFIG_WRITER = Json.MAPPER.writerFor(Config.class).withDefaultPrettyPrinter();
+
+    private ConfigCodec() {
+    }
+
+    public static Config read(Path path) throws IOException {
+        try (InputStream in = new BufferedInputStream(Channels.newInputStream(FileChannel.open(path, StandardOpenOption.READ)))) {
+            return CONFIG_READER.readValue(in);
+        }
+    }
+
+    public static void write(Config config, Path path) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Channels.newOutputStream(FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)))) {
+            CONFIG_WRITER.writeValue(out, config);
+        }
+    }
+}
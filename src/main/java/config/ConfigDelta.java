@@ -0,0 +1,43 @@
+package config;
+
+import java.util.*;
+
+/**
+ * What changed between two versions of a config file.
+ */
+public record ConfigDelta(
+        List<String> addedPeople,
+        List<String> removedPeople,
+        boolean colorsChanged,
+        boolean weeklySchedulesChanged,
+        boolean firstWeekdayChanged,
+        boolean rotationAnchorChanged,
+        boolean formattingChanged) {
+
+    static ConfigDelta between(Config before, Config after) {
+        List<String> added = new ArrayList<>(after.people);
+        added.removeAll(before.people);
+        List<String> removed = new ArrayList<>(before.people);
+        removed.removeAll(after.people);
+        return new ConfigDelta(
+                List.copyOf(added),
+                List.copyOf(removed),
+                !Objects.equals(before.peopleColors, after.peopleColors),
+                !Objects.equals(before.weeklySchedules, after.weeklySchedules),
+                !Objects.equals(before.firstWeekday, after.firstWeekday),
+                !Objects.equals(before.rotationAnchor, after.rotationAnchor),
+                !Objects.equals(before.formatting, after.formatting));
+    }
+
+    public boolean isEmpty() {
+        return addedPeople.isEmpty() && removedPeople.isEmpty() && !colorsChanged && !weeklySchedulesChanged
+                && !firstWeekdayChanged && !rotationAnchorChanged && !formattingChanged;
+    }
+
+    /**
+     * Whether rendered calendars may look different: colors, fonts or the first weekday changed.
+     */
+    public boolean affectsRendering() {
+        return colorsChanged || firstWeekdayChanged || formattingChanged;
+    }
+}
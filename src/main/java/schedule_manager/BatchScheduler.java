@@ -0,0 +1,145 @@
+package schedule_manager;
+
+import config.CompiledConfig;
+import config.Config;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Generates schedules for many independent teams concurrently.
+ * Every team gets its own {@link ContentScheduler}, so no mutable state is shared between tasks;
+ * teams with identical weekly schedules share the same immutable compiled templates.
+ */
+public class BatchScheduler {
+
+    /**
+     * One team to schedule: its configuration and the schedule it writes into.
+     */
+    public record Team(String name, Config config, Schedule schedule) {
+    }
+
+    /**
+     * Outcome of one team's run. {@code scheduledEntries} counts the entries this run generated, not the schedule's
+     * history; {@code error} is null when the team succeeded.
+     */
+    public record TeamResult(String name, Duration elapsed, int scheduledEntries, Throwable error) {
+        public boolean succeeded() {
+            return error == null;
+        }
+    }
+
+    /**
+     * Outcome of a whole batch: per-team results, in submission order, and the wall-clock time.
+     */
+    public record BatchResult(List<TeamResult> teams, Duration wallTime) {
+
+        public int scheduledEntries() {
+            return teams.stream().mapToInt(TeamResult::scheduledEntries).sum();
+        }
+
+        public long failures() {
+            return teams.stream().filter(result -> !result.succeeded()).count();
+        }
+
+        /**
+         * Sum of every team's own run time; compare with {@link #wallTime()} to see the speed-up.
+         */
+        public Duration cpuTime() {
+            return teams.stream().map(TeamResult::elapsed).reduce(Duration.ZERO, Duration::plus);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder();
+            for (TeamResult team : teams) {
+                builder.append(String.format("%s: %d entries in %d ms%s%n",
+                        team.name(),
+                        team.scheduledEntries(),
+                        team.elapsed().toMillis(),
+                        team.succeeded() ? "" : " - FAILED: " + team.error().getMessage()));
+            }
+            builder.append(String.format("%d teams, %d entries, %d failed, %d ms wall time, %d ms total team time",
+                    teams.size(), scheduledEntries(), failures(), wallTime.toMillis(), cpuTime().toMillis()));
+            return builder.toString();
+        }
+    }
+
+    private final int parallelism;
+    private final Map<List<String>, List<WeeklyTemplate>> templateCache = new ConcurrentHashMap<>();
+
+    public BatchScheduler() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public BatchScheduler(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Generates every month from {@code startMonth} to {@code endMonth} for each team, and saves each team's schedule
+     * to its file when {@code save} is set. A failing team does not stop the others.
+     */
+    public BatchResult run(List<Team> teams, YearMonth startMonth, YearMonth endMonth, boolean save) {
+        if (startMonth.isAfter(endMonth)) {
+            throw new IllegalArgumentException("Start month must be before or equal to end month");
+        }
+
+        long batchStart = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<Future<TeamResult>> futures = new ArrayList<>(teams.size());
+            for (Team team : teams) {
+                futures.add(pool.submit(() -> runTeam(team, startMonth, endMonth, save)));
+            }
+
+            List<TeamResult> results = new ArrayList<>(teams.size());
+            for (Future<TeamResult> future : futures) {
+                results.add(future.get());
+            }
+            return new BatchResult(results, Duration.ofNanos(System.nanoTime() - batchStart));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Batch scheduling was interrupted");
+        } catch (ExecutionException e) {
+            // runTeam catches everything itself, so this only happens on errors like OutOfMemoryError
+            throw new IllegalStateException("Batch scheduling failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private TeamResult runTeam(Team team, YearMonth startMonth, YearMonth endMonth, boolean save) {
+        long start = System.nanoTime();
+        int entries = 0;
+        try {
+            Config config = team.config();
+            CompiledConfig compiled = config.compiled();
+            LocalDate anchor = compiled.rotationAnchor() == null
+                    ? startMonth.atDay(1).minusDays(1)
+                    : compiled.rotationAnchor();
+            TemplateRotation rotation = new TemplateRotation(templatesFor(config), anchor, 0);
+            ContentScheduler scheduler = new ContentScheduler(team.schedule(), compiled.people(), rotation);
+
+            for (YearMonth month = startMonth; !month.isAfter(endMonth); month = month.plusMonths(1)) {
+                entries += scheduler.generateFullMonthSchedule(month);
+            }
+            if (save) {
+                team.schedule().saveToFile();
+            }
+            return new TeamResult(team.name(), Duration.ofNanos(System.nanoTime() - start), entries, null);
+        } catch (Exception e) {
+            return new TeamResult(team.name(), Duration.ofNanos(System.nanoTime() - start), entries, e);
+        }
+    }
+
+    private List<WeeklyTemplate> templatesFor(Config config) {
+        return templateCache.computeIfAbsent(List.copyOf(config.getWeeklySchedules()), k -> config.compiled().weeklyTemplates());
+    }
+}
@@ -0,0 +1,168 @@
+package schedule_manager;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Compact binary schedule files ({@value #EXTENSION}), meant for large archives.
+ * <pre>
+ * header   int magic "SSCH", short version, int records offset, int first epoch day, int day count,
+ *          short maker count, then per maker a short byte length and the UTF-8 name
+ * records  one 7-byte record per day from the first to the last scheduled date:
+ *          int epoch day, byte type ordinal (-1 for an empty day), short maker id (-1 for none)
+ * </pre>
+ * Days are stored densely, so the record for a date sits at a computed offset and {@link MappedSchedule} can
+ * answer lookups straight from a memory-mapped file. All values are big-endian.
+ */
+public final class BinaryScheduleFormat {
+
+    public static final String EXTENSION = ".ssch";
+
+    static final int MAGIC = 'S' << 24 | 'S' << 16 | 'C' << 8 | 'H';
+    static final short VERSION = 1;
+    static final int RECORD_SIZE = 7;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Type[] TYPES = Type.values();
+
+    private BinaryScheduleFormat() {
+    }
+
+    public static boolean isBinary(Path path) {
+        return path.getFileName().toString().endsWith(EXTENSION);
+    }
+
+    public static void write(Map<LocalDate, Content> schedule, Path path) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Channels.newOutputStream(FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)), BUFFER_SIZE)) {
+            write(schedule, out);
+        }
+    }
+
+    /**
+     * Same as {@link #write(Map, Path)} through a forced temporary file renamed over {@code path}.
+     */
+    public static void writeAtomically(Map<LocalDate, Content> schedule, Path path) throws IOException {
+        ScheduleCodec.replaceAtomically(path, out -> write(schedule, out));
+    }
+
+    /**
+     * Writes the schedule and flushes {@code out}, leaving it open.
+     */
+    public static void write(Map<LocalDate, Content> schedule, OutputStream out) throws IOException {
+        LocalDate first = null;
+        LocalDate last = null;
+        Map<String, Integer> makerIds = new LinkedHashMap<>();
+        for (Map.Entry<LocalDate, Content> entry : schedule.entrySet()) {
+            LocalDate date = entry.getKey();
+            if (first == null || date.isBefore(first)) first = date;
+            if (last == null || date.isAfter(last)) last = date;
+            String maker = entry.getValue().getMaker();
+            if (maker != null) {
+                makerIds.putIfAbsent(maker, makerIds.size());
+            }
+        }
+        if (makerIds.size() > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many makers for the binary format: " + makerIds.size());
+        }
+
+        byte[][] names = new byte[makerIds.size()][];
+        int headerSize = 4 + 2 + 4 + 4 + 4 + 2;
+        for (Map.Entry<String, Integer> maker : makerIds.entrySet()) {
+            byte[] name = maker.getKey().getBytes(StandardCharsets.UTF_8);
+            if (name.length > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Maker name is too long for the binary format: " + maker.getKey());
+            }
+            names[maker.getValue()] = name;
+            headerSize += 2 + name.length;
+        }
+
+        int firstDay = first == null ? 0 : epochDay(first);
+        int dayCount = first == null ? 0 : Math.toIntExact(last.toEpochDay() - first.toEpochDay() + 1);
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeShort(VERSION);
+        data.writeInt(headerSize);
+        data.writeInt(firstDay);
+        data.writeInt(dayCount);
+        data.writeShort(names.length);
+        for (byte[] name : names) {
+            data.writeShort(name.length);
+            data.write(name);
+        }
+
+        for (int i = 0; i < dayCount; i++) {
+            LocalDate date = LocalDate.ofEpochDay(firstDay + (long) i);
+            Content content = schedule.get(date);
+            data.writeInt(firstDay + i);
+            if (content == null) {
+                data.writeByte(-1);
+                data.writeShort(-1);
+            } else {
+                data.writeByte(content.getType().ordinal());
+                data.writeShort(content.getMaker() == null ? -1 : makerIds.get(content.getMaker()));
+            }
+        }
+        data.flush();
+    }
+
+    /**
+     * Loads a whole binary file into a store.
+     */
+    public static ScheduleStore read(Path path) throws IOException {
+        return MappedSchedule.open(path).load();
+    }
+
+    /**
+     * Converts a JSON schedule file into the binary format.
+     */
+    public static void convertJsonToBinary(Path json, Path binary) throws IOException {
+        write(ScheduleCodec.read(json), binary);
+    }
+
+    /**
+     * Converts a binary schedule file back to JSON.
+     */
+    public static void convertBinaryToJson(Path binary, Path json) throws IOException {
+        ScheduleCodec.write(read(binary), json);
+    }
+
+    static Type typeOf(byte ordinal) {
+        if (ordinal < 0 || ordinal >= TYPES.length) {
+            throw new IllegalStateException("Unknown content type " + ordinal + " in binary schedule");
+        }
+        return TYPES[ordinal];
+    }
+
+    private static int epochDay(LocalDate date) {
+        return Math.toIntExact(date.toEpochDay());
+    }
+
+    /**
+     * Converts between formats based on the file extensions, e.g. {@code schedule.json schedule.ssch}.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: BinaryScheduleFormat <from> <to>, one .json and one " + EXTENSION + " file");
+            return;
+        }
+        Path from = Path.of(args[0]);
+        Path to = Path.of(args[1]);
+        if (isBinary(from) && !isBinary(to)) {
+            convertBinaryToJson(from, to);
+        } else if (!isBinary(from) && isBinary(to)) {
+            convertJsonToBinary(from, to);
+        } else {
+            System.err.println("Exactly one of the files must have the " + EXTENSION + " extension");
+            return;
+        }
+        System.out.println("Converted " + from + " to " + to);
+    }
+}
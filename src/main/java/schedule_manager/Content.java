@@ -7,12 +7,19 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 
+/**
+ * One scheduled item. Kept to three fields so large histories stay small: the date is held as an epoch day and
+ * turned into a {@link LocalDate} on demand, weight comes from the {@link Type} and the day of week from the date.
+ * Schedules intern maker names through their {@link MakerDictionary}, so entries share one String per maker.
+ */
 public class Content {
 
+    // Template contents have no date; they store TEMPLATE_DAY + day-of-week ordinal instead
+    private static final int TEMPLATE_DAY = Integer.MIN_VALUE;
+    private static final DayOfWeek[] DAYS = DayOfWeek.values();
+
     private final Type type;
-    private final int weight;
-    private final DayOfWeek day;
-    private LocalDate date;
+    private int epochDay;
     private String maker;
 
     @JsonCreator
@@ -22,16 +29,13 @@ public class Content {
             @JsonProperty("maker") String maker
     ) {
         this.type = type;
-        this.weight = calculateWeight(type);
-        this.day = date.getDayOfWeek();
-        this.date = date;
+        this.epochDay = toEpochDay(date);
         this.maker = maker;
     }
 
     public Content(Type type, DayOfWeek day) {
         this.type = type;
-        this.weight = calculateWeight(type);
-        this.day = day;
+        this.epochDay = TEMPLATE_DAY + day.ordinal();
     }
 
     public Type getType() {
@@ -40,53 +44,55 @@ public class Content {
 
     @JsonIgnore
     public int getWeight() {
-        return weight;
+        return type.getWeight();
     }
 
     @JsonIgnore
     public DayOfWeek getDay() {
-        return day;
+        if (isTemplate()) {
+            return DAYS[epochDay - TEMPLATE_DAY];
+        }
+        // Epoch day 0, 1970-01-01, was a Thursday
+        return DAYS[Math.floorMod(epochDay + 3, 7)];
     }
 
     public LocalDate getDate() {
-        return date;
+        return isTemplate() ? null : LocalDate.ofEpochDay(epochDay);
     }
 
-    public void setDate(LocalDate date) {
-        this.date = date;
+    // Package-private: stored entries are filed by date and maker and must not change in place
+    void setDate(LocalDate date) {
+        this.epochDay = toEpochDay(date);
     }
 
     public String getMaker() {
         return maker;
     }
 
-    public void setMaker(String maker) {
+    void setMaker(String maker) {
         this.maker = maker;
     }
 
     static int calculateWeight(Type type) {
-        int weight = 0;
-        switch (type) {
-            case STORIA:
-                weight = 1;
-                break;
-            case POST:
-            case LOCANDINA:
-            case TESTIMONIANZA:
-                weight = 2;
-                break;
-            case REEL:
-            case RIASSUNTO:
-                weight = 3;
-                break;
-       }
-       return weight;
+        return type.getWeight();
+    }
+
+    private boolean isTemplate() {
+        return epochDay < TEMPLATE_DAY + DAYS.length;
+    }
+
+    private static int toEpochDay(LocalDate date) {
+        long epochDay = date.toEpochDay();
+        if (epochDay < TEMPLATE_DAY + DAYS.length || epochDay > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Date " + date + " is outside the supported range");
+        }
+        return (int) epochDay;
     }
 
 
     @Override
     public String toString() {
-        return String.format("(%s %s): %s - %s", day, date, type, maker);
+        return String.format("(%s %s): %s - %s", getDay(), getDate(), type, maker);
     }
 
 }
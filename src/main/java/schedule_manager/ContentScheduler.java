@@ -1,169 +1,392 @@
 package schedule_manager;
 
+import config.CompiledConfig;
 import config.Config;
 import utils.Utils;
 
 import java.time.*;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static java.lang.Math.ceil;
 
 public class ContentScheduler {
     private final Schedule schedule;
     private final List<String> people;
-    private Map<String, Map<Type, Integer>> contentCountMap;
-    private Map<DayOfWeek, Content> weeklyContent;
-    private String currentWeeklySchedule;
-    private final List<String> weeklySchedules;
+    private final ContentTally tally;
+    private final MakerSelector selector;
+    private List<String> weeklySchedules;
+    private List<WeeklyTemplate> weeklyTemplates;
+    private TemplateRotation rotation;
+    private int currentTemplateIndex;
+    private LocalDate lastGeneratedDate;
 
     private boolean emptyOnly = false;
-
-    Map<String, Integer> monthContentCounter;
+    private MakerConstraints constraints;
+    private final SortedSet<LocalDate> unassignedDays = new TreeSet<>();
 
     public ContentScheduler(Schedule schedule, List<String> people, List<String> weeklySchedules, int currentWeeklySchedule) {
+        this(schedule, people, weeklySchedules, currentWeeklySchedule, null);
+    }
+
+    /**
+     * Creates a scheduler whose template rotation is pinned to {@code rotationAnchor}: the weekly schedule at
+     * {@code currentWeeklySchedule} is in effect on that date. Without an anchor the rotation is anchored
+     * to the first month generated, so only that run's months line up with each other.
+     */
+    public ContentScheduler(Schedule schedule, List<String> people, List<String> weeklySchedules, int currentWeeklySchedule, LocalDate rotationAnchor) {
+        this(schedule, people, WeeklyTemplate.compileAll(weeklySchedules), rotationAnchor, currentWeeklySchedule);
+    }
+
+    /**
+     * Creates a scheduler for the people and weekly templates of a compiled config, starting with its first weekly
+     * template and anchored to its rotation anchor, if any.
+     */
+    public ContentScheduler(Schedule schedule, CompiledConfig config) {
+        this(schedule, config.people(), config.weeklyTemplates(), config.rotationAnchor(), 0);
+    }
+
+    /**
+     * Creates a scheduler over an already compiled, anchored rotation. The rotation's templates are
+     * immutable and may be shared between schedulers running on different threads.
+     */
+    public ContentScheduler(Schedule schedule, List<String> people, TemplateRotation rotation) {
+        this(schedule, people, rotation.getTemplates(), rotation.getAnchor(), rotation.getAnchorIndex());
+    }
+
+    private ContentScheduler(Schedule schedule, List<String> people, List<WeeklyTemplate> weeklyTemplates, LocalDate rotationAnchor, int currentWeeklySchedule) {
         this.schedule = schedule;
         this.people = new ArrayList<>(people);
-        this.weeklySchedules = new ArrayList<>(weeklySchedules);
-        this.currentWeeklySchedule = weeklySchedules.get(currentWeeklySchedule);
+        this.weeklyTemplates = weeklyTemplates;
+        this.weeklySchedules = weeklyTemplates.stream().map(WeeklyTemplate::getSource).toList();
+        this.currentTemplateIndex = Objects.checkIndex(currentWeeklySchedule, weeklyTemplates.size());
+        if (rotationAnchor != null) {
+            this.rotation = new TemplateRotation(weeklyTemplates, rotationAnchor, currentWeeklySchedule);
+        }
+        this.tally = new ContentTally(this.people);
+        this.selector = new MakerSelector(tally, new Random());
 
         populateCountMap();
-        this.weeklyContent = parseWeeklySchedule(this.currentWeeklySchedule);
     }
 
     public void setEmptyOnly(boolean emptyOnly) {
         this.emptyOnly = emptyOnly;
     }
 
+    /**
+     * Applies hard per-maker constraints to day-by-day assignment; null removes them.
+     * The horizon optimizer does not take them into account.
+     */
+    public void setConstraints(MakerConstraints constraints) {
+        this.constraints = constraints;
+        if (constraints != null) {
+            constraints.track(schedule, tally);
+        }
+    }
+
+    public MakerConstraints getConstraints() {
+        return constraints;
+    }
+
+    /**
+     * Returns the days left without an entry because every maker was blocked by the constraints, and not assigned
+     * since. See {@link MakerConstraints.WhenAllBlocked#LEAVE_EMPTY}.
+     */
+    public SortedSet<LocalDate> getUnassignedDays() {
+        return Collections.unmodifiableSortedSet(unassignedDays);
+    }
+
     public void populateCountMap() {
-        this.contentCountMap = new HashMap<>();
-        for (String maker : people) {
-            contentCountMap.put(maker, new HashMap<>());
-            Map<Type, Integer> contentWeightMapPerson = contentCountMap.get(maker);
+        tally.reset();
+
+        // Populate existing schedule counts
+        for (Map.Entry<String, int[]> makerCounts : schedule.typeCounts().entrySet()) {
+            int id = tally.indexOf(makerCounts.getKey());
+            if (id < 0) continue;
             for (Type type : Type.values()) {
-                contentWeightMapPerson.put(type, 0);
+                tally.add(id, type, makerCounts.getValue()[type.ordinal()]);
             }
         }
+        selector.rebuild();
+        if (constraints != null) {
+            constraints.track(schedule, tally);
+        }
+    }
 
-        // Populate existing schedule counts
-        for (LocalDate date : schedule.getSchedule().keySet()) {
-            Content content = schedule.getSchedule().get(date);
-            Map<Type, Integer> contentCountMapPerson = contentCountMap.get(content.getMaker());
+    /**
+     * Picks a maker for {@code content} and counts it, or returns null if the constraints leave the day empty.
+     * With {@code replacing}, the entry stored on that day is about to be replaced and is taken out of the counts;
+     * otherwise stored entries stay counted.
+     */
+    private Content assignContent(Content content, boolean replacing) {
+        LocalDate date = content.getDate();
+        // The selector orders makers by monthly cap, then type count, then total weight
+        int chosenId;
+        if (constraints == null) {
+            chosenId = selector.peek(content.getType());
+        } else {
+            long[] blocked = constraints.blockedMakers(date, content.getType(), replacing ? schedule.getEntry(date) : null);
+            chosenId = selector.peek(content.getType(), blocked);
+            if (chosenId < 0 && selector.peek(content.getType()) >= 0) {
+                switch (constraints.getWhenAllBlocked()) {
+                    case LEAVE_EMPTY -> {
+                        unassignedDays.add(date);
+                        return null;
+                    }
+                    case ASSIGN_ANYWAY -> chosenId = selector.peek(content.getType());
+                    case FAIL -> throw new IllegalStateException("No maker satisfies the constraints on " + date);
+                }
+            }
+        }
+        if (chosenId < 0) {
+            throw new IllegalStateException("No makers available to assign " + content.getType());
+        }
+
+        content.setMaker(tally.nameOf(chosenId));
+        if (replacing) {
+            updateCount(content);
+        } else {
+            credit(chosenId, content);
+            selector.updated(chosenId);
+        }
+        selector.recordAssignment(chosenId);
+        return content;
+    }
 
-            if (contentCountMapPerson != null) {
-                int current = contentCountMapPerson.get(content.getType());
-                contentCountMapPerson.put(content.getType(), current + 1);
+    void updateCount(Content content) {
+        Content toRemove = schedule.getEntry(content.getDate());
+        if (toRemove != null) {
+            // The replaced entry is credited to its own maker, not the new one
+            int removedId = tally.indexOf(toRemove.getMaker());
+            if (removedId >= 0) {
+                debit(removedId, toRemove);
+                selector.updated(removedId);
             }
         }
+
+        int id = tally.indexOf(content.getMaker());
+        credit(id, content);
+        selector.updated(id);
     }
 
-    private void assignContent(Content content) {
-        Type type = content.getType();
-        List<String> eligibleMakers = new ArrayList<>();
-        int minTypeWeight = Integer.MAX_VALUE;
+    /**
+     * Counts {@code content} for maker {@code id} in the tallies and the constraints' running state.
+     */
+    private void credit(int id, Content content) {
+        tally.increment(id, content.getType());
+        unassignedDays.remove(content.getDate());
+        if (constraints != null) {
+            constraints.assigned(content.getDate(), id, content.getType());
+        }
+    }
 
-        int maxMonthlyContent = (int) ceil(31.0f / people.size());
-        List<String> nonMaxPeople = monthContentCounter.keySet().stream().filter(maker -> monthContentCounter.get(maker) < maxMonthlyContent).toList();
+    private void debit(int id, Content content) {
+        tally.decrement(id, content.getType());
+        if (constraints != null) {
+            constraints.unassigned(content.getDate(), id, content.getType());
+        }
+    }
 
-        // First, find makers with the minimum weight for this specific content type
-        for (String maker : nonMaxPeople) {
-            Map<Type, Integer> makerContent = contentCountMap.get(maker);
-            int typeWeight = makerContent.get(type);
+    Schedule schedule() {
+        return schedule;
+    }
 
-            if (typeWeight < minTypeWeight) {
-                minTypeWeight = typeWeight;
-                eligibleMakers.clear();
-                eligibleMakers.add(maker);
-            } else if (typeWeight == minTypeWeight) {
-                eligibleMakers.add(maker);
-            }
+    /**
+     * Starts assigning content to {@code maker}. A new maker starts with zero tallies; a removed one is re-activated
+     * with their history.
+     */
+    void addMaker(String maker) {
+        int id = tally.indexOf(maker);
+        if (id >= 0 && selector.isActive(id)) {
+            throw new IllegalArgumentException("Maker " + maker + " is already scheduled");
+        }
+        people.add(maker);
+        if (id >= 0) {
+            selector.setActive(id, true);
+        } else {
+            tally.addPerson(maker);
+            selector.rebuild();
         }
+    }
 
-        // If multiple makers have the same minimum type weight,
-        // choose based on overall content weight
-        int minWeight = eligibleMakers.stream()
-                .mapToInt(this::getWeight)
-                .min()
-                .orElse(0);
+    /**
+     * Stops assigning content to {@code maker}. Their past entries and tallies are kept.
+     */
+    void removeMaker(String maker) {
+        int id = tally.indexOf(maker);
+        if (id < 0 || !selector.isActive(id)) {
+            throw new IllegalArgumentException("Maker " + maker + " is not scheduled");
+        }
+        people.remove(maker);
+        selector.setActive(id, false);
+    }
 
-        List<String> minWeightMakers = eligibleMakers.stream()
-                .filter(maker -> getWeight(maker) == minWeight)
-                .collect(Collectors.toList());
-        String chosenMaker = minWeightMakers.get(new Random().nextInt(minWeightMakers.size()));
+    /**
+     * Returns the type the weekly template rotation schedules on {@code date}, or null for a free day.
+     */
+    Type scheduledType(LocalDate date) {
+        return templateFor(date).typeFor(date.getDayOfWeek());
+    }
 
-        content.setMaker(chosenMaker);
-        updateCount(content);
-        schedule.addEntry(content.getDate(), content);
+    void setRotation(TemplateRotation rotation) {
+        this.rotation = rotation;
+        this.weeklyTemplates = rotation.getTemplates();
+        this.weeklySchedules = weeklyTemplates.stream().map(WeeklyTemplate::getSource).toList();
+        this.currentTemplateIndex = rotation.indexFor(lastGeneratedDate != null ? lastGeneratedDate : rotation.getAnchor());
     }
 
-    void updateCount(Content content) {
-        int current;
-        Map<Type, Integer> contentCountMapPerson = contentCountMap.get(content.getMaker());
+    /**
+     * Replaces the weekly templates of a scheduler whose rotation is not anchored yet.
+     */
+    void setWeeklyTemplates(List<WeeklyTemplate> templates) {
+        if (templates.isEmpty()) {
+            throw new IllegalArgumentException("At least one weekly template is required");
+        }
+        this.weeklyTemplates = List.copyOf(templates);
+        this.weeklySchedules = weeklyTemplates.stream().map(WeeklyTemplate::getSource).toList();
+        this.currentTemplateIndex = Math.min(currentTemplateIndex, weeklyTemplates.size() - 1);
+    }
 
-        if (schedule.getSchedule().containsKey(content.getDate())) {
-            Content toRemove = schedule.getSchedule().get(content.getDate());
+    /**
+     * Applies the monthly cap of a full month generation; {@code null} lifts the cap for out-of-band edits.
+     */
+    void startMonth(YearMonth yearMonth) {
+        selector.startMonth(yearMonth == null ? Integer.MAX_VALUE : (int) ceil(31.0f / people.size()));
+    }
 
-            current = contentCountMapPerson.get(toRemove.getType());
-            contentCountMapPerson.put(toRemove.getType(), current - 1);
+    /**
+     * Applies the monthly cap of {@code yearMonth} to generation starting on {@code from}: the month's entries
+     * already in the schedule before {@code from} count towards it.
+     */
+    void resumeMonth(YearMonth yearMonth, LocalDate from) {
+        startMonth(yearMonth);
+        LocalDate firstDay = yearMonth.atDay(1);
+        if (!from.isAfter(firstDay)) return;
+        for (Content content : schedule.entriesBetween(firstDay, from.minusDays(1))) {
+            int id = tally.indexOf(content.getMaker());
+            if (id >= 0) {
+                selector.recordAssignment(id);
+            }
+        }
+    }
+
+    /**
+     * Removes the entry on {@code date} and takes it out of the tallies.
+     */
+    Content unassign(LocalDate date) {
+        Content removed = schedule.removeEntry(date);
+        if (removed != null) {
+            int id = tally.indexOf(removed.getMaker());
+            if (id >= 0) {
+                debit(id, removed);
+                selector.updated(id);
+            }
         }
+        return removed;
+    }
 
-        current = contentCountMapPerson.get(content.getType());
-        contentCountMapPerson.put(content.getType(), current + 1);
+    /**
+     * Assigns {@code type} on {@code date} to the best available maker, replacing any existing entry. If the
+     * constraints leave the day empty, the existing entry is removed.
+     */
+    void assignBest(LocalDate date, Type type) {
+        Content content = assignContent(new Content(type, date, null), true);
+        if (content != null) {
+            schedule.addEntry(date, content);
+        } else {
+            unassign(date);
+        }
+    }
+
+    /**
+     * Assigns {@code type} on {@code date} to {@code maker}, replacing any existing entry.
+     */
+    void assign(LocalDate date, Type type, String maker) {
+        if (tally.indexOf(maker) < 0) {
+            throw new IllegalArgumentException("Unknown maker " + maker);
+        }
+        Content content = new Content(type, date, maker);
+        updateCount(content);
+        schedule.addEntry(date, content);
     }
 
     /**
      * Parses a weekly schedule string and returns a list of content to make based on it.
      */
     public Map<DayOfWeek, Content> parseWeeklySchedule(String weeklyProgram) {
+        WeeklyTemplate template = WeeklyTemplate.compile(weeklyProgram);
         Map<DayOfWeek, Content> contentList = new HashMap<>();
-        String[] entries = weeklyProgram.split(", ");
-
-        for (String entry : entries) {
-            String[] parts = entry.split(" ");
-            Type type = Type.valueOf(parts[0]);
-            DayOfWeek dayOfWeek = DayOfWeek.valueOf(parts[1].toUpperCase());
-            contentList.put(dayOfWeek, new Content(type, dayOfWeek));
-        }
         for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
-            if (!contentList.containsKey(dayOfWeek)) {
-                contentList.put(dayOfWeek, null);
-            }
+            Type type = template.typeFor(dayOfWeek);
+            contentList.put(dayOfWeek, type == null ? null : new Content(type, dayOfWeek));
         }
 
         return contentList;
     }
 
+    /**
+     * Makes {@code newWeeklySchedule} the template in effect from the last generated day until the next Monday.
+     */
     public void switchWeeklySchedule(String newWeeklySchedule) {
-        if (!weeklySchedules.contains(newWeeklySchedule)) {
+        int index = weeklySchedules.indexOf(newWeeklySchedule);
+        if (index < 0) {
             throw new IllegalArgumentException("New weekly schedule must be in the list of weekly schedules");
         }
-        this.currentWeeklySchedule = newWeeklySchedule;
-        this.weeklyContent = parseWeeklySchedule(newWeeklySchedule);
+        this.currentTemplateIndex = index;
+        if (rotation != null) {
+            LocalDate anchor = lastGeneratedDate != null ? lastGeneratedDate : rotation.getAnchor();
+            this.rotation = rotation.withAnchor(anchor, index);
+        }
     }
 
     public String getCurrentWeeklySchedule() {
-        return currentWeeklySchedule;
+        // The rotation may have switched templates after the last generated day
+        if (rotation != null && lastGeneratedDate != null) {
+            return rotation.templateFor(lastGeneratedDate).getSource();
+        }
+        return weeklySchedules.get(currentTemplateIndex);
+    }
+
+    /**
+     * Pins the template rotation so that the weekly schedule at {@code index} is in effect on {@code anchor}.
+     */
+    public void setRotationAnchor(LocalDate anchor, int index) {
+        this.rotation = new TemplateRotation(weeklyTemplates, anchor, index);
+        this.currentTemplateIndex = index;
+    }
+
+    public TemplateRotation getRotation() {
+        return rotation;
+    }
+
+    /**
+     * Returns the weekly template in effect on the given date.
+     *
+     * @throws IllegalStateException if the rotation has not been anchored yet
+     */
+    public WeeklyTemplate templateFor(LocalDate date) {
+        if (rotation == null) {
+            throw new IllegalStateException("Template rotation is not anchored; set an anchor or generate a month first");
+        }
+        return rotation.templateFor(date);
     }
 
     private int getCount(String maker) {
-        return contentCountMap.get(maker).values().stream().mapToInt(Integer::intValue).sum();
+        return tally.totalCount(tally.indexOf(maker));
     }
 
     private int getWeight(String maker) {
-        return contentCountMap.get(maker)
-                .entrySet()
-                .stream()
-                .mapToInt(entry -> entry.getValue() * Content.calculateWeight(entry.getKey()))
-                .sum();
+        return tally.totalWeight(tally.indexOf(maker));
     }
 
     public void printWeightDistribution() {
         System.out.println("Current weight distribution:");
         for (String person : people) {
-            Map<Type, Integer> personContentCount = contentCountMap.get(person);
+            int id = tally.indexOf(person);
             StringBuilder typeBreakdown = new StringBuilder();
             for (Type type : Type.values()) {
-                typeBreakdown.append(String.format("%s:%d ", type, personContentCount.get(type)));
+                typeBreakdown.append(String.format("%s:%d ", type, tally.count(id, type)));
             }
 
             String msg = String.format(
@@ -177,43 +400,171 @@ public class ContentScheduler {
         }
     }
 
-    public void generateFullMonthSchedule(YearMonth yearMonth) {
-        int daysInMonth = yearMonth.lengthOfMonth();
-        LocalDate firstDayOfMonth = yearMonth.atDay(1);
+    /**
+     * Generates every day of {@code yearMonth}, replacing existing entries, and returns how many entries it assigned.
+     */
+    public int generateFullMonthSchedule(YearMonth yearMonth) {
+        LocalDate lastDayOfMonth = yearMonth.atEndOfMonth();
+        int generated = 0;
+        AssignmentIterator assignments = new AssignmentIterator(yearMonth.atDay(1), lastDayOfMonth, true);
+        while (assignments.hasNext()) {
+            Content content = assignments.next();
+            schedule.addEntry(content.getDate(), content);
+            generated++;
+        }
 
-        monthContentCounter = new HashMap<>();
-        for (String maker : people) { monthContentCounter.put(maker, 0); }
+        lastGeneratedDate = lastDayOfMonth;
+        currentTemplateIndex = rotation.indexFor(lastGeneratedDate);
+        return generated;
+    }
 
-        int scheduleIndex = weeklySchedules.indexOf(currentWeeklySchedule);
-        Map<DayOfWeek, Content> currentWeeklyContent = weeklyContent;
+    /**
+     * Lazily generates assignments day by day from {@code from} onwards, without an end.
+     * See {@link #assignments(LocalDate, LocalDate)}.
+     */
+    public Stream<Content> stream(LocalDate from) {
+        return stream(from, null);
+    }
 
-        for (int day = 1; day <= daysInMonth; day++) {
-            LocalDate date = firstDayOfMonth.withDayOfMonth(day);
-            if (this.emptyOnly && schedule.getSchedule().containsKey(date)) {
-                continue;
+    /**
+     * Lazily generates assignments from {@code from} to {@code to}, both inclusive.
+     * See {@link #assignments(LocalDate, LocalDate)}.
+     */
+    public Stream<Content> stream(LocalDate from, LocalDate to) {
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(assignments(from, to), Spliterator.ORDERED | Spliterator.NONNULL),
+                false);
+    }
+
+    /**
+     * Returns an iterator that assigns one scheduled day per step, from {@code from} to {@code to} inclusive, or
+     * forever if {@code to} is null. Only the running tallies are kept: each assignment is added to them on top of
+     * the stored entries, which stay counted, but nothing is written to the schedule, so the caller decides where
+     * entries go and can stop at any time. emptyOnly still skips days with a stored entry, and the monthly cap of
+     * the first month counts the entries stored before {@code from}.
+     * <p>
+     * The assignment for a day is made by {@link Iterator#hasNext()}, which consumes the day: an assignment
+     * {@code hasNext()} returned true for is counted even if {@code next()} is never called.
+     */
+    public Iterator<Content> assignments(LocalDate from, LocalDate to) {
+        return new AssignmentIterator(from, to, false);
+    }
+
+    private final class AssignmentIterator implements Iterator<Content> {
+        private final LocalDate end;
+        private final boolean replacing;
+        private LocalDate nextDate;
+        private YearMonth month;
+        private Content pending;
+
+        /**
+         * @param replacing whether the caller stores every assignment over the existing entry of its day
+         */
+        AssignmentIterator(LocalDate from, LocalDate end, boolean replacing) {
+            // Without an explicit anchor, the current template covers the days before the first Monday
+            if (rotation == null) {
+                setRotationAnchor(from.minusDays(1), currentTemplateIndex);
             }
+            this.nextDate = from;
+            this.end = end;
+            this.replacing = replacing;
+        }
 
-            if (date.getDayOfWeek() == DayOfWeek.MONDAY) {
-                scheduleIndex = (scheduleIndex + 1) % weeklySchedules.size();
-                currentWeeklySchedule = weeklySchedules.get(scheduleIndex);
-                currentWeeklyContent = parseWeeklySchedule(currentWeeklySchedule);
+        /**
+         * Assigns the next scheduled day and keeps it for {@link #next()}.
+         */
+        @Override
+        public boolean hasNext() {
+            while (pending == null && (end == null || !nextDate.isAfter(end))) {
+                LocalDate date = nextDate;
+                nextDate = nextDate.plusDays(1);
+
+                if (!YearMonth.from(date).equals(month)) {
+                    month = YearMonth.from(date);
+                    resumeMonth(month, date);
+                }
+                lastGeneratedDate = date;
+                currentTemplateIndex = rotation.indexFor(date);
+
+                if (emptyOnly && schedule.getEntry(date) != null) {
+                    continue;
+                }
+                Type type = rotation.templateFor(date).typeFor(date.getDayOfWeek());
+                if (type != null) {
+                    pending = assignContent(new Content(type, date, null), replacing);
+                }
             }
+            return pending != null;
+        }
 
-            DayOfWeek dayOfWeek = date.getDayOfWeek();
-            final Content content = currentWeeklyContent.get(dayOfWeek);
-            if (content != null) {
-                final Content scheduledContent = new Content(content.getType(), dayOfWeek);
-                scheduledContent.setDate(date);
-                assignContent(scheduledContent);
+        @Override
+        public Content next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
             }
+            Content content = pending;
+            pending = null;
+            return content;
         }
     }
+    /**
+     * Assigns every scheduled day from {@code startMonth} to {@code endMonth} at once with a {@link HorizonOptimizer},
+     * balancing type counts and then total weights over the whole range instead of day by day.
+     * Existing entries on days the templates schedule are replaced unless emptyOnly is set; entries on template-free
+     * days are kept. The monthly cap is not applied.
+     */
+    public void generateOptimizedSchedule(YearMonth startMonth, YearMonth endMonth) {
+        if (startMonth.isAfter(endMonth)) {
+            throw new IllegalArgumentException("Start month must be before or equal to end month");
+        }
+        LocalDate firstDay = startMonth.atDay(1);
+        LocalDate lastDay = endMonth.atEndOfMonth();
+        if (rotation == null) {
+            setRotationAnchor(firstDay.minusDays(1), currentTemplateIndex);
+        }
+
+        List<LocalDate> dates = new ArrayList<>();
+        List<Type> types = new ArrayList<>();
+        for (LocalDate date = firstDay; !date.isAfter(lastDay); date = date.plusDays(1)) {
+            Type type = rotation.templateFor(date).typeFor(date.getDayOfWeek());
+            if (type == null) {
+                // Like greedy generation, days without a template type are left as they are
+                continue;
+            }
+
+            Content existing = schedule.getEntry(date);
+            if (existing != null) {
+                if (this.emptyOnly) {
+                    continue;
+                }
+                // Take replaced entries out of the history the optimizer balances against
+                int id = tally.indexOf(existing.getMaker());
+                if (id >= 0) {
+                    debit(id, existing);
+                }
+                schedule.removeEntry(date);
+            }
+            dates.add(date);
+            types.add(type);
+        }
+
+        int[] owners = new HorizonOptimizer(tally, selector::isActive).solve(dates.toArray(new LocalDate[0]), types.toArray(new Type[0]));
+        for (int i = 0; i < owners.length; i++) {
+            Content content = new Content(types.get(i), dates.get(i), tally.nameOf(owners[i]));
+            credit(owners[i], content);
+            schedule.addEntry(dates.get(i), content);
+        }
+        selector.rebuild();
+
+        lastGeneratedDate = lastDay;
+        currentTemplateIndex = rotation.indexFor(lastGeneratedDate);
+    }
 
     public static void main(String[] args) {
         try {
             Schedule schedule = new Schedule("schedule_rcy.json");
             Config config = new Config("config_rcy.json");
-            ContentScheduler contentScheduler = new ContentScheduler(schedule, config.getPeople(), config.getWeeklySchedules(), 0);
+            ContentScheduler contentScheduler = new ContentScheduler(schedule, config.compiled());
             // contentScheduler.populateCountMap();
             YearMonth dates = YearMonth.of(2025, 2);
             contentScheduler.generateFullMonthSchedule(dates);
@@ -0,0 +1,109 @@
+package schedule_manager;
+
+import java.util.*;
+
+/**
+ * Dense per-person content counters, indexed by person ordinal and {@link Type#ordinal()}.
+ * Keeps a running total count and total weight per person so lookups never iterate or box.
+ */
+class ContentTally {
+
+    private static final Type[] TYPES = Type.values();
+    private static final int TYPE_COUNT = TYPES.length;
+    private static final int[] TYPE_WEIGHTS = new int[TYPE_COUNT];
+
+    static {
+        for (Type type : TYPES) {
+            TYPE_WEIGHTS[type.ordinal()] = type.getWeight();
+        }
+    }
+
+    static int weightOf(Type type) {
+        return TYPE_WEIGHTS[type.ordinal()];
+    }
+
+    private final List<String> people;
+    private final Map<String, Integer> ids;
+    private int[] counts;
+    private int[] totalCounts;
+    private int[] totalWeights;
+
+    ContentTally(List<String> people) {
+        this.people = new ArrayList<>(people);
+        this.ids = new HashMap<>();
+        for (int i = 0; i < this.people.size(); i++) {
+            ids.put(this.people.get(i), i);
+        }
+        this.counts = new int[this.people.size() * TYPE_COUNT];
+        this.totalCounts = new int[this.people.size()];
+        this.totalWeights = new int[this.people.size()];
+    }
+
+    /**
+     * Returns the ordinal of the given person, or -1 if they are not tracked.
+     */
+    int indexOf(String maker) {
+        Integer id = maker == null ? null : ids.get(maker);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Starts tracking a new person with zero counts and returns their ordinal.
+     */
+    int addPerson(String maker) {
+        if (ids.containsKey(maker)) {
+            throw new IllegalArgumentException("Maker " + maker + " is already tracked");
+        }
+        int id = people.size();
+        people.add(maker);
+        ids.put(maker, id);
+        counts = Arrays.copyOf(counts, people.size() * TYPE_COUNT);
+        totalCounts = Arrays.copyOf(totalCounts, people.size());
+        totalWeights = Arrays.copyOf(totalWeights, people.size());
+        return id;
+    }
+
+    String nameOf(int id) {
+        return people.get(id);
+    }
+
+    int size() {
+        return people.size();
+    }
+
+    void reset() {
+        Arrays.fill(counts, 0);
+        Arrays.fill(totalCounts, 0);
+        Arrays.fill(totalWeights, 0);
+    }
+
+    void increment(int id, Type type) {
+        counts[id * TYPE_COUNT + type.ordinal()]++;
+        totalCounts[id]++;
+        totalWeights[id] += TYPE_WEIGHTS[type.ordinal()];
+    }
+
+    void add(int id, Type type, int amount) {
+        counts[id * TYPE_COUNT + type.ordinal()] += amount;
+        totalCounts[id] += amount;
+        totalWeights[id] += TYPE_WEIGHTS[type.ordinal()] * amount;
+    }
+
+    void decrement(int id, Type type) {
+        counts[id * TYPE_COUNT + type.ordinal()]--;
+        totalCounts[id]--;
+        totalWeights[id] -= TYPE_WEIGHTS[type.ordinal()];
+    }
+
+    int count(int id, Type type) {
+        return counts[id * TYPE_COUNT + type.ordinal()];
+    }
+
+    int totalCount(int id) {
+        return totalCounts[id];
+    }
+
+    int totalWeight(int id) {
+        return totalWeights[id];
+    }
+}
@@ -0,0 +1,242 @@
+package schedule_manager;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * Assigns every slot of a horizon at once instead of greedily day by day.
+ * <p>
+ * The objective is the sum of squared per-maker type counts (type balance) followed by the sum of squared
+ * per-maker total weights (weight balance), both including the history already in the tally. Types only
+ * interact through the weight term, so the type-balance part is a separable convex transportation problem per
+ * type that water-filling solves exactly. An exchange pass then moves or swaps single items between makers
+ * whenever that lowers the weight term without changing the type term. Finally each maker's items of a type are
+ * spread evenly over that type's slots, and items falling on consecutive days for the same maker are swapped
+ * apart where possible. The result is deterministic.
+ */
+class HorizonOptimizer {
+
+    private static final Type[] TYPES = Type.values();
+    // How far along a type's slot list the adjacency repair looks for a swap partner
+    private static final int REPAIR_WINDOW = 3;
+
+    private final ContentTally tally;
+    private final IntPredicate eligible;
+
+    /**
+     * @param eligible tells which maker ids may receive new items; the others only count as history
+     */
+    HorizonOptimizer(ContentTally tally, IntPredicate eligible) {
+        this.tally = tally;
+        this.eligible = eligible;
+    }
+
+    /**
+     * Returns the chosen maker id for each slot. Dates must be strictly increasing.
+     */
+    int[] solve(LocalDate[] dates, Type[] types) {
+        int makers = tally.size();
+        int slots = dates.length;
+        int[] owners = new int[slots];
+        if (slots == 0) return owners;
+        if (IntStream.range(0, makers).noneMatch(eligible)) {
+            throw new IllegalStateException("No makers available to assign " + slots + " slots");
+        }
+
+        int[][] counts = new int[makers][TYPES.length];
+        int[][] quotas = new int[makers][TYPES.length];
+        long[] weights = new long[makers];
+        for (int m = 0; m < makers; m++) {
+            for (Type type : TYPES) {
+                counts[m][type.ordinal()] = tally.count(m, type);
+            }
+            weights[m] = tally.totalWeight(m);
+        }
+
+        List<List<Integer>> slotsByType = new ArrayList<>();
+        for (int t = 0; t < TYPES.length; t++) {
+            slotsByType.add(new ArrayList<>());
+        }
+        for (int i = 0; i < slots; i++) {
+            slotsByType.get(types[i].ordinal()).add(i);
+        }
+
+        allocateQuotas(slotsByType, counts, quotas, weights);
+        balanceWeights(counts, quotas, weights);
+        for (int t = 0; t < TYPES.length; t++) {
+            layOut(slotsByType.get(t), t, quotas, owners);
+        }
+        separateConsecutiveDays(dates, types, slotsByType, owners);
+        return owners;
+    }
+
+    /**
+     * Water-fills each type: every unit goes to the maker with the lowest count of that type, then lowest weight.
+     * Heavier types are allocated first so that lighter ones can even out the weights afterwards.
+     */
+    private void allocateQuotas(List<List<Integer>> slotsByType, int[][] counts, int[][] quotas, long[] weights) {
+        Integer[] order = new Integer[TYPES.length];
+        for (int t = 0; t < TYPES.length; t++) order[t] = t;
+        Arrays.sort(order, Comparator.comparingInt((Integer t) -> -ContentTally.weightOf(TYPES[t])).thenComparingInt(t -> t));
+
+        for (int t : order) {
+            int weight = ContentTally.weightOf(TYPES[t]);
+            for (int unit = 0; unit < slotsByType.get(t).size(); unit++) {
+                int best = -1;
+                for (int m = 0; m < counts.length; m++) {
+                    if (!eligible.test(m)) continue;
+                    if (best < 0 || counts[m][t] < counts[best][t]
+                            || (counts[m][t] == counts[best][t] && weights[m] < weights[best])) {
+                        best = m;
+                    }
+                }
+                counts[best][t]++;
+                quotas[best][t]++;
+                weights[best] += weight;
+            }
+        }
+    }
+
+    /**
+     * Moves or exchanges single items between makers while that strictly lowers the sum of squared weights and leaves
+     * every type's sum of squared counts unchanged. Each step lowers a non-negative integer objective, so it terminates.
+     */
+    private void balanceWeights(int[][] counts, int[][] quotas, long[] weights) {
+        int makers = counts.length;
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int a = 0; a < makers; a++) {
+                for (int b = 0; b < makers; b++) {
+                    if (weights[a] <= weights[b] || !eligible.test(b)) continue;
+                    if (moveOne(a, b, counts, quotas, weights) || exchange(a, b, counts, quotas, weights)) {
+                        improved = true;
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean moveOne(int a, int b, int[][] counts, int[][] quotas, long[] weights) {
+        for (int t = 0; t < TYPES.length; t++) {
+            int weight = ContentTally.weightOf(TYPES[t]);
+            // Moving a unit between counts p and p-1 just swaps them, so type balance is untouched
+            if (quotas[a][t] > 0 && counts[a][t] - 1 == counts[b][t] && weights[a] - weights[b] > weight) {
+                transfer(a, b, t, counts, quotas, weights);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean exchange(int a, int b, int[][] counts, int[][] quotas, long[] weights) {
+        for (int heavy = 0; heavy < TYPES.length; heavy++) {
+            if (quotas[a][heavy] == 0 || counts[a][heavy] - 1 != counts[b][heavy]) continue;
+            for (int light = 0; light < TYPES.length; light++) {
+                if (quotas[b][light] == 0 || counts[b][light] - 1 != counts[a][light]) continue;
+                int delta = ContentTally.weightOf(TYPES[heavy]) - ContentTally.weightOf(TYPES[light]);
+                if (delta > 0 && weights[a] - weights[b] > delta) {
+                    transfer(a, b, heavy, counts, quotas, weights);
+                    transfer(b, a, light, counts, quotas, weights);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void transfer(int from, int to, int t, int[][] counts, int[][] quotas, long[] weights) {
+        int weight = ContentTally.weightOf(TYPES[t]);
+        counts[from][t]--;
+        quotas[from][t]--;
+        weights[from] -= weight;
+        counts[to][t]++;
+        quotas[to][t]++;
+        weights[to] += weight;
+    }
+
+    /**
+     * Spreads each maker's quota evenly over the type's slots: the k-th of q items ideally sits at (k + 0.5) / q of
+     * the way through, and slots are handed out in order of those ideal positions.
+     */
+    private void layOut(List<Integer> typeSlots, int t, int[][] quotas, int[] owners) {
+        int n = typeSlots.size();
+        if (n == 0) return;
+
+        double[] positions = new double[n];
+        int[] makersAt = new int[n];
+        int next = 0;
+        for (int m = 0; m < quotas.length; m++) {
+            int quota = quotas[m][t];
+            for (int k = 0; k < quota; k++) {
+                positions[next] = (k + 0.5) / quota;
+                makersAt[next] = m;
+                next++;
+            }
+        }
+
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        Arrays.sort(order, Comparator.comparingDouble((Integer i) -> positions[i]).thenComparingInt(i -> makersAt[i]));
+        for (int i = 0; i < n; i++) {
+            owners[typeSlots.get(i)] = makersAt[order[i]];
+        }
+    }
+
+    /**
+     * Swaps a slot with a nearby slot of the same type when its maker also has the previous day.
+     */
+    private void separateConsecutiveDays(LocalDate[] dates, Type[] types, List<List<Integer>> slotsByType, int[] owners) {
+        long firstDay = dates[0].toEpochDay();
+        int[] slotOnDay = new int[(int) (dates[dates.length - 1].toEpochDay() - firstDay + 1)];
+        Arrays.fill(slotOnDay, -1);
+        for (int i = 0; i < dates.length; i++) {
+            slotOnDay[(int) (dates[i].toEpochDay() - firstDay)] = i;
+        }
+
+        int[] positionInType = new int[dates.length];
+        for (List<Integer> typeSlots : slotsByType) {
+            for (int p = 0; p < typeSlots.size(); p++) {
+                positionInType[typeSlots.get(p)] = p;
+            }
+        }
+
+        for (int i = 0; i < dates.length; i++) {
+            if (!hasNeighbour(i, owners[i], dates, slotOnDay, firstDay, owners)) continue;
+
+            List<Integer> typeSlots = slotsByType.get(types[i].ordinal());
+            int p = positionInType[i];
+            for (int offset = 1; offset <= REPAIR_WINDOW; offset++) {
+                if (trySwap(i, p + offset, typeSlots, dates, slotOnDay, firstDay, owners)
+                        || trySwap(i, p - offset, typeSlots, dates, slotOnDay, firstDay, owners)) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private boolean trySwap(int i, int p, List<Integer> typeSlots, LocalDate[] dates, int[] slotOnDay, long firstDay, int[] owners) {
+        if (p < 0 || p >= typeSlots.size()) return false;
+        int j = typeSlots.get(p);
+        int a = owners[i];
+        int b = owners[j];
+        if (a == b) return false;
+
+        owners[i] = b;
+        owners[j] = a;
+        if (hasNeighbour(i, b, dates, slotOnDay, firstDay, owners) || hasNeighbour(j, a, dates, slotOnDay, firstDay, owners)) {
+            owners[i] = a;
+            owners[j] = b;
+            return false;
+        }
+        return true;
+    }
+
+    private boolean hasNeighbour(int slot, int maker, LocalDate[] dates, int[] slotOnDay, long firstDay, int[] owners) {
+        int day = (int) (dates[slot].toEpochDay() - firstDay);
+        return (day > 0 && slotOnDay[day - 1] >= 0 && owners[slotOnDay[day - 1]] == maker)
+                || (day + 1 < slotOnDay.length && slotOnDay[day + 1] >= 0 && owners[slotOnDay[day + 1]] == maker);
+    }
+}
@@ -0,0 +1,169 @@
+package schedule_manager;
+
+import config.Config;
+import config.ConfigDelta;
+import utils.FileWatcher;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Keeps a running scheduler in step with hand edits of its config and schedule files.
+ * <p>
+ * When a watched file has settled, only that file is re-parsed and compared with the state in memory:
+ * <ul>
+ *     <li>config: people who joined or left and changed weekly schedules become {@link ScheduleDelta}s for an
+ *     {@link IncrementalRescheduler}, effective from today; then config listeners, such as renderers, get the
+ *     {@link ConfigDelta};</li>
+ *     <li>schedule: the days that differ are applied to the {@link Schedule}, the scheduler's tallies are
+ *     re-read from its indexes and schedule listeners get the changed dates.</li>
+ * </ul>
+ * A file that fails to parse is reported and ignored, keeping the previous state. The schedule file is the source of
+ * truth: a reload also reverts in-memory changes that were not saved yet. Saves made by this process, directly or
+ * through {@link SchedulePersistence}, are recognized by the file's identity, modification time and size and do not
+ * trigger a reload, since their snapshot may lag behind the schedule in memory.
+ * <p>
+ * Schedulers and schedules are not thread-safe, so changes are applied through the executor of the thread that owns
+ * them, for example a single-thread executor that also runs generation.
+ */
+public class HotReloader implements AutoCloseable {
+
+    private static final Duration DEFAULT_QUIET_PERIOD = Duration.ofMillis(200);
+
+    private final Config config;
+    private final Schedule schedule;
+    private final ContentScheduler scheduler;
+    private final Executor applyOn;
+    private final FileWatcher watcher;
+    private final List<Consumer<ConfigDelta>> configListeners = new CopyOnWriteArrayList<>();
+    private final List<Consumer<List<LocalDate>>> scheduleListeners = new CopyOnWriteArrayList<>();
+    private volatile Supplier<LocalDate> effectiveFrom = LocalDate::now;
+
+    /**
+     * @param applyOn runs changes on the thread that owns {@code schedule} and {@code scheduler}
+     */
+    public HotReloader(Config config, Schedule schedule, ContentScheduler scheduler, Executor applyOn) throws IOException {
+        this(config, schedule, scheduler, DEFAULT_QUIET_PERIOD, applyOn);
+    }
+
+    public HotReloader(Config config, Schedule schedule, ContentScheduler scheduler, Duration quietPeriod, Executor applyOn) throws IOException {
+        this.config = config;
+        this.schedule = schedule;
+        this.scheduler = scheduler;
+        this.applyOn = Objects.requireNonNull(applyOn, "An executor for the owning thread is required");
+        this.watcher = new FileWatcher(quietPeriod);
+
+        if (config.getPath() != null) {
+            watcher.watch(config.getPath(), path -> applyOn.execute(this::configChanged));
+        }
+        if (schedule.watchedPath() != null) {
+            watcher.watch(schedule.watchedPath(), path -> applyOn.execute(this::scheduleChanged));
+        }
+    }
+
+    public void addConfigListener(Consumer<ConfigDelta> listener) {
+        configListeners.add(listener);
+    }
+
+    public void addScheduleListener(Consumer<List<LocalDate>> listener) {
+        scheduleListeners.add(listener);
+    }
+
+    /**
+     * Sets the date from which team and template changes are applied; today by default.
+     */
+    public void setEffectiveFrom(Supplier<LocalDate> effectiveFrom) {
+        this.effectiveFrom = effectiveFrom;
+    }
+
+    void configChanged() {
+        ConfigDelta delta;
+        try {
+            delta = config.reload();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring unreadable config change: " + e.getMessage());
+            return;
+        }
+        if (delta.isEmpty()) return;
+
+        try {
+            applyToScheduler(delta, effectiveFrom.get());
+        } catch (RuntimeException e) {
+            System.err.println("Error applying config change to the scheduler: " + e.getMessage());
+            e.printStackTrace();
+        }
+        System.out.println("Config reloaded: " + delta);
+        for (Consumer<ConfigDelta> listener : configListeners) {
+            listener.accept(delta);
+        }
+    }
+
+    private void applyToScheduler(ConfigDelta delta, LocalDate from) {
+        IncrementalRescheduler rescheduler = new IncrementalRescheduler(scheduler);
+        // Without an anchored rotation nothing has been generated by this scheduler yet, so there is nothing to redo
+        boolean anchored = scheduler.getRotation() != null;
+
+        for (String maker : delta.removedPeople()) {
+            if (anchored) {
+                rescheduler.apply(new ScheduleDelta.MakerRemoved(maker, from));
+            } else {
+                scheduler.removeMaker(maker);
+            }
+        }
+        for (String maker : delta.addedPeople()) {
+            if (anchored) {
+                rescheduler.apply(new ScheduleDelta.MakerAdded(maker, from));
+            } else {
+                scheduler.addMaker(maker);
+            }
+        }
+
+        if (delta.weeklySchedulesChanged() || delta.rotationAnchorChanged()) {
+            List<WeeklyTemplate> templates = config.compiled().weeklyTemplates();
+            LocalDate configuredAnchor = config.compiled().rotationAnchor();
+            if (anchored) {
+                TemplateRotation current = scheduler.getRotation();
+                TemplateRotation rotation = configuredAnchor != null
+                        ? new TemplateRotation(templates, configuredAnchor, 0)
+                        : new TemplateRotation(templates, current.getAnchor(), current.getAnchorIndex() % templates.size());
+                rescheduler.apply(new ScheduleDelta.TemplateChanged(rotation, from));
+            } else if (configuredAnchor != null) {
+                scheduler.setRotation(new TemplateRotation(templates, configuredAnchor, 0));
+            } else {
+                scheduler.setWeeklyTemplates(templates);
+            }
+        }
+    }
+
+    void scheduleChanged() {
+        // This process's own save
+        if (!schedule.changedOnDisk()) return;
+
+        List<LocalDate> changed;
+        try {
+            changed = schedule.reload();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring unreadable schedule change: " + e.getMessage());
+            return;
+        }
+        if (changed.isEmpty()) return;
+
+        scheduler.populateCountMap();
+        System.out.println("Schedule reloaded: " + changed.size() + " days changed");
+        for (Consumer<List<LocalDate>> listener : scheduleListeners) {
+            listener.accept(changed);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        watcher.close();
+    }
+}
@@ -0,0 +1,130 @@
+package schedule_manager;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Applies {@link ScheduleDelta}s to an already generated schedule. Only the slots a delta affects are reassigned,
+ * and the scheduler's tallies are updated in place, so the cost is proportional to the affected days rather than
+ * to the whole schedule history.
+ */
+public class IncrementalRescheduler {
+
+    private final ContentScheduler scheduler;
+    private final Schedule schedule;
+
+    public IncrementalRescheduler(ContentScheduler scheduler) {
+        this.scheduler = scheduler;
+        this.schedule = scheduler.schedule();
+    }
+
+    /**
+     * Applies the delta and returns the number of days whose entry changed.
+     */
+    public int apply(ScheduleDelta delta) {
+        return switch (delta) {
+            case ScheduleDelta.MakerAdded added -> makerAdded(added.maker(), added.from());
+            case ScheduleDelta.MakerRemoved removed -> makerRemoved(removed.maker(), removed.from());
+            case ScheduleDelta.DateReassigned reassigned -> dateReassigned(reassigned.date(), reassigned.maker());
+            case ScheduleDelta.TemplateChanged changed -> templateChanged(changed.rotation(), changed.from());
+        };
+    }
+
+    /**
+     * Adds the maker and regenerates every slot from {@code from} to the end of the schedule, so the newcomer gets
+     * a fair share of the future.
+     */
+    public int makerAdded(String maker, LocalDate from) {
+        scheduler.addMaker(maker);
+
+        LocalDate lastDate = schedule.lastDate();
+        if (lastDate == null) return 0;
+
+        int changed = 0;
+        YearMonth month = null;
+        for (LocalDate date = from; !date.isAfter(lastDate); date = date.plusDays(1)) {
+            if (!YearMonth.from(date).equals(month)) {
+                month = YearMonth.from(date);
+                // Days of the month before from keep their makers and count towards the cap
+                scheduler.resumeMonth(month, date);
+            }
+
+            Type type = scheduler.scheduledType(date);
+            if (type != null) {
+                scheduler.assignBest(date, type);
+                changed++;
+            } else if (scheduler.unassign(date) != null) {
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Removes the maker and hands only their entries from {@code from} onwards to the remaining makers.
+     */
+    public int makerRemoved(String maker, LocalDate from) {
+        scheduler.removeMaker(maker);
+
+        LocalDate lastDate = schedule.lastDate();
+        if (lastDate == null) return 0;
+
+        scheduler.startMonth(null);
+        int changed = 0;
+        for (Content content : schedule.entriesBetween(from, lastDate)) {
+            if (maker.equals(content.getMaker())) {
+                scheduler.assignBest(content.getDate(), content.getType());
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Records a manual edit: the day keeps its current type, or takes the template's type if it was empty.
+     */
+    public int dateReassigned(LocalDate date, String maker) {
+        if (maker == null) {
+            return scheduler.unassign(date) != null ? 1 : 0;
+        }
+
+        Content existing = schedule.getEntry(date);
+        Type type = existing != null ? existing.getType() : scheduler.scheduledType(date);
+        if (type == null) {
+            throw new IllegalArgumentException("No content type is scheduled on " + date);
+        }
+        scheduler.assign(date, type, maker);
+        return 1;
+    }
+
+    /**
+     * Switches to the new rotation from {@code from} onwards, keeping the current one for earlier dates, and only
+     * touches days whose type changed: new content days are assigned, dropped ones are cleared and days with the
+     * same type keep their maker.
+     */
+    public int templateChanged(TemplateRotation rotation, LocalDate from) {
+        TemplateRotation current = scheduler.getRotation();
+        scheduler.setRotation(current == null ? rotation : rotation.startingFrom(from, current));
+
+        LocalDate lastDate = schedule.lastDate();
+        if (lastDate == null) return 0;
+
+        scheduler.startMonth(null);
+        int changed = 0;
+        for (LocalDate date = from; !date.isAfter(lastDate); date = date.plusDays(1)) {
+            Content existing = schedule.getEntry(date);
+            Type type = scheduler.scheduledType(date);
+            if (type == null) {
+                if (existing != null) {
+                    scheduler.unassign(date);
+                    changed++;
+                }
+            } else if (existing == null || existing.getType() != type) {
+                scheduler.unassign(date);
+                scheduler.assignBest(date, type);
+                changed++;
+            }
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,314 @@
+package schedule_manager;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Hard per-maker constraints checked while assigning content: days off, a weekly item limit and per-type
+ * cooldowns (for example no REEL by the same maker on consecutive days).
+ * <p>
+ * While bound to a scheduler, state is kept in dense per-day {@code long} masks of maker ordinals indexed from a
+ * base epoch day: the makers that are off, and per type the makers that have an item of that type. Items per maker
+ * and week are kept as running counters, with a per-week mask of the makers at the weekly limit. The scheduler
+ * updates them on every assignment, so building the set of blocked makers for a day is a few word-wide ORs, with no
+ * schedule lookups and no loop over makers.
+ * An instance keeps scratch state and should be used by one scheduler at a time.
+ */
+public class MakerConstraints {
+
+    /**
+     * What the scheduler does with a day on which every maker is blocked.
+     */
+    public enum WhenAllBlocked {
+        /**
+         * Leaves the day without an entry and reports it in {@link ContentScheduler#getUnassignedDays()}.
+         */
+        LEAVE_EMPTY,
+        /**
+         * Assigns the best maker regardless of the constraints.
+         */
+        ASSIGN_ANYWAY,
+        /**
+         * Throws an {@link IllegalStateException}.
+         */
+        FAIL
+    }
+
+    private static final int TYPE_COUNT = Type.values().length;
+
+    private final Map<String, BitSet> unavailableDays = new HashMap<>();
+    private final int[] cooldownDays = new int[TYPE_COUNT];
+    private int maxPerWeek = 0;
+    private WhenAllBlocked whenAllBlocked = WhenAllBlocked.LEAVE_EMPTY;
+
+    // Running state of the bound scheduler. Day d is at index d - baseDay, and baseDay is a Monday so weeks line up
+    private ContentTally tally;
+    private int words;
+    private long baseDay;
+    private int dayCount;
+    private long[] unavailable = new long[0]; // [day * words + word]
+    private long[] typeDays = new long[0]; // [(day * TYPE_COUNT + type) * words + word]
+    private int[] weekCounts = new int[0]; // [week * words * 64 + maker]
+    private long[] weekFull = new long[0]; // [week * words + word], makers at the weekly limit
+    private int boundSize = -1;
+    private long[] blocked = new long[0];
+
+    /**
+     * Marks {@code maker} as unavailable from {@code from} to {@code to}, both inclusive.
+     */
+    public void setUnavailable(String maker, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Unavailability for " + maker + " ends before it starts");
+        }
+        unavailableDays.computeIfAbsent(maker, k -> new BitSet())
+                .set(epochDayIndex(from), epochDayIndex(to) + 1);
+        boundSize = -1;
+    }
+
+    public boolean isUnavailable(String maker, LocalDate date) {
+        BitSet days = unavailableDays.get(maker);
+        return days != null && days.get(epochDayIndex(date));
+    }
+
+    /**
+     * Limits how many items a maker gets per Monday-to-Sunday week; 0 means no limit.
+     */
+    public void setMaxPerWeek(int maxPerWeek) {
+        if (maxPerWeek < 0) {
+            throw new IllegalArgumentException("Weekly limit must not be negative");
+        }
+        this.maxPerWeek = maxPerWeek;
+        // The limit masks are derived from the counters
+        for (int week = 0; week < dayCount / 7; week++) {
+            for (int id = 0; id < words * 64; id++) {
+                updateLimit(week, id);
+            }
+        }
+    }
+
+    public int getMaxPerWeek() {
+        return maxPerWeek;
+    }
+
+    /**
+     * Forbids a maker from getting {@code type} again within {@code days} days of another one;
+     * 1 means not on consecutive days, 0 disables the cooldown.
+     */
+    public void setCooldown(Type type, int days) {
+        if (days < 0) {
+            throw new IllegalArgumentException("Cooldown must not be negative");
+        }
+        cooldownDays[type.ordinal()] = days;
+    }
+
+    public int getCooldown(Type type) {
+        return cooldownDays[type.ordinal()];
+    }
+
+    /**
+     * Sets what happens on a day every maker is blocked; by default the day is left empty.
+     */
+    public void setWhenAllBlocked(WhenAllBlocked whenAllBlocked) {
+        this.whenAllBlocked = Objects.requireNonNull(whenAllBlocked);
+    }
+
+    public WhenAllBlocked getWhenAllBlocked() {
+        return whenAllBlocked;
+    }
+
+    /**
+     * Binds to a scheduler's tallies and rebuilds the running state from every entry in {@code schedule}.
+     */
+    void track(Schedule schedule, ContentTally tally) {
+        this.tally = tally;
+        this.words = 0;
+        this.dayCount = 0;
+        this.unavailable = new long[0];
+        this.typeDays = new long[0];
+        this.weekCounts = new int[0];
+        this.weekFull = new long[0];
+        this.boundSize = -1;
+        for (Map.Entry<LocalDate, Content> entry : schedule.getSchedule().entrySet()) {
+            int id = tally.indexOf(entry.getValue().getMaker());
+            if (id >= 0) {
+                assigned(entry.getKey(), id, entry.getValue().getType());
+            }
+        }
+    }
+
+    /**
+     * Records that maker {@code id} got {@code type} on {@code date}.
+     */
+    void assigned(LocalDate date, int id, Type type) {
+        sync();
+        long epochDay = date.toEpochDay();
+        ensureRange(epochDay, epochDay);
+        int day = (int) (epochDay - baseDay);
+        typeDays[(day * TYPE_COUNT + type.ordinal()) * words + (id >>> 6)] |= 1L << id;
+        weekCounts[(day / 7) * words * 64 + id]++;
+        updateLimit(day / 7, id);
+    }
+
+    /**
+     * Records that maker {@code id} no longer has {@code type} on {@code date}.
+     */
+    void unassigned(LocalDate date, int id, Type type) {
+        int day = dayIndex(date.toEpochDay());
+        if (day < 0) return;
+        typeDays[(day * TYPE_COUNT + type.ordinal()) * words + (id >>> 6)] &= ~(1L << id);
+        weekCounts[(day / 7) * words * 64 + id]--;
+        updateLimit(day / 7, id);
+    }
+
+    private void updateLimit(int week, int id) {
+        int word = week * words + (id >>> 6);
+        if (maxPerWeek > 0 && weekCounts[week * words * 64 + id] >= maxPerWeek) {
+            weekFull[word] |= 1L << id;
+        } else {
+            weekFull[word] &= ~(1L << id);
+        }
+    }
+
+    /**
+     * Returns the maker ordinals that may not get {@code type} on {@code date}, as a bit mask with one bit per
+     * ordinal. {@code existing} is the entry being replaced on that day, if any, and does not count against its
+     * maker. The returned array is reused by the next call.
+     */
+    long[] blockedMakers(LocalDate date, Type type, Content existing) {
+        if (tally == null) {
+            throw new IllegalStateException("Constraints are not bound to a scheduler");
+        }
+        sync();
+        Arrays.fill(blocked, 0L);
+        long epochDay = date.toEpochDay();
+        int day = dayIndex(epochDay);
+        if (day >= 0) {
+            orInto(unavailable, day * words);
+        }
+
+        int cooldown = cooldownDays[type.ordinal()];
+        if (cooldown > 0 && dayCount > 0) {
+            long first = Math.max(epochDay - cooldown, baseDay) - baseDay;
+            long last = Math.min(epochDay + cooldown, baseDay + dayCount - 1) - baseDay;
+            for (long other = first; other <= last; other++) {
+                if (other == day) continue;
+                orInto(typeDays, ((int) other * TYPE_COUNT + type.ordinal()) * words);
+            }
+        }
+
+        if (maxPerWeek > 0 && day >= 0) {
+            int week = day / 7;
+            orInto(weekFull, week * words);
+            // The entry being replaced does not count against its maker
+            int existingId = existing == null ? -1 : tally.indexOf(existing.getMaker());
+            if (existingId >= 0 && weekCounts[week * words * 64 + existingId] - 1 < maxPerWeek) {
+                blocked[existingId >>> 6] &= ~(1L << existingId);
+            }
+        }
+        return blocked;
+    }
+
+    private void orInto(long[] masks, int offset) {
+        for (int word = 0; word < words; word++) {
+            blocked[word] |= masks[offset + word];
+        }
+    }
+
+    private int dayIndex(long epochDay) {
+        long day = epochDay - baseDay;
+        return day >= 0 && day < dayCount ? (int) day : -1;
+    }
+
+    /**
+     * Widens the masks when makers were added and re-applies days off when constraints or makers changed.
+     */
+    private void sync() {
+        int needed = Math.max(1, (tally.size() + 63) >>> 6);
+        if (needed > words) {
+            unavailable = restride(unavailable, dayCount, words, needed);
+            typeDays = restride(typeDays, dayCount * TYPE_COUNT, words, needed);
+            weekCounts = restride(weekCounts, dayCount / 7, words * 64, needed * 64);
+            weekFull = restride(weekFull, dayCount / 7, words, needed);
+            blocked = new long[needed];
+            words = needed;
+        }
+        if (boundSize == tally.size()) return;
+
+        Arrays.fill(unavailable, 0L);
+        for (Map.Entry<String, BitSet> entry : unavailableDays.entrySet()) {
+            int id = tally.indexOf(entry.getKey());
+            BitSet days = entry.getValue();
+            if (id < 0 || days.isEmpty()) continue;
+            ensureRange(days.nextSetBit(0), days.length() - 1);
+            for (int epochDay = days.nextSetBit(0); epochDay >= 0; epochDay = days.nextSetBit(epochDay + 1)) {
+                unavailable[(int) (epochDay - baseDay) * words + (id >>> 6)] |= 1L << id;
+            }
+        }
+        boundSize = tally.size();
+    }
+
+    /**
+     * Grows the day range to cover {@code from} to {@code to}, at least doubling it so day-by-day
+     * generation rarely reallocates.
+     */
+    private void ensureRange(long from, long to) {
+        long end = baseDay + dayCount;
+        if (dayCount > 0 && from >= baseDay && to < end) return;
+
+        long newBase = dayCount == 0 ? from : Math.min(baseDay, from);
+        long newEnd = dayCount == 0 ? to + 1 : Math.max(end, to + 1);
+        if (dayCount > 0 && newBase < baseDay) newBase = Math.min(newBase, baseDay - dayCount);
+        if (dayCount > 0 && newEnd > end) newEnd = Math.max(newEnd, end + dayCount);
+        newBase = monday(newBase);
+        long length = (newEnd - newBase + 6) / 7 * 7;
+        if (length * TYPE_COUNT * words > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Constrained dates span too many days");
+        }
+
+        int newDays = (int) length;
+        int shift = dayCount == 0 ? 0 : (int) (baseDay - newBase);
+        unavailable = shift(unavailable, newDays * words, shift * words);
+        typeDays = shift(typeDays, newDays * TYPE_COUNT * words, shift * TYPE_COUNT * words);
+        int[] counts = new int[newDays / 7 * words * 64];
+        System.arraycopy(weekCounts, 0, counts, shift / 7 * words * 64, weekCounts.length);
+        weekCounts = counts;
+        weekFull = shift(weekFull, newDays / 7 * words, shift / 7 * words);
+        baseDay = newBase;
+        dayCount = newDays;
+    }
+
+    private static long[] shift(long[] masks, int length, int offset) {
+        long[] shifted = new long[length];
+        System.arraycopy(masks, 0, shifted, offset, masks.length);
+        return shifted;
+    }
+
+    private static long[] restride(long[] rows, int count, int stride, int newStride) {
+        long[] result = new long[count * newStride];
+        for (int row = 0; row < count; row++) {
+            System.arraycopy(rows, row * stride, result, row * newStride, stride);
+        }
+        return result;
+    }
+
+    private static int[] restride(int[] rows, int count, int stride, int newStride) {
+        int[] result = new int[count * newStride];
+        for (int row = 0; row < count; row++) {
+            System.arraycopy(rows, row * stride, result, row * newStride, stride);
+        }
+        return result;
+    }
+
+    private static long monday(long epochDay) {
+        // 1970-01-01, epoch day 0, was a Thursday
+        return epochDay - Math.floorMod(epochDay + 3, 7);
+    }
+
+    private static int epochDayIndex(LocalDate date) {
+        long epochDay = date.toEpochDay();
+        if (epochDay < 0 || epochDay > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Date " + date + " is outside the supported range");
+        }
+        return (int) epochDay;
+    }
+}
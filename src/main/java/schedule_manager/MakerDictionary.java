@@ -0,0 +1,53 @@
+package schedule_manager;
+
+import java.util.*;
+
+/**
+ * Per-schedule table of maker names. Every entry of a schedule refers to the dictionary's single copy of its maker's
+ * name, instead of the fresh String a parser creates per entry, and each name has a stable small id.
+ */
+public class MakerDictionary {
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+
+    /**
+     * Returns the canonical copy of {@code maker}, adding it if it is new. Null stays null.
+     */
+    public String intern(String maker) {
+        if (maker == null) return null;
+        Integer id = ids.get(maker);
+        if (id != null) return names.get(id);
+        ids.put(maker, names.size());
+        names.add(maker);
+        return maker;
+    }
+
+    /**
+     * Returns the id of {@code maker}, or -1 if it is not in the dictionary.
+     */
+    public int idOf(String maker) {
+        Integer id = maker == null ? null : ids.get(maker);
+        return id == null ? -1 : id;
+    }
+
+    public String nameOf(int id) {
+        return names.get(id);
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    /**
+     * Points the content at the canonical maker name and returns it.
+     */
+    Content intern(Content content) {
+        String maker = content.getMaker();
+        String canonical = intern(maker);
+        if (canonical != maker) {
+            content.setMaker(canonical);
+        }
+        return content;
+    }
+}
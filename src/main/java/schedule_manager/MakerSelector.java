@@ -0,0 +1,228 @@
+package schedule_manager;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Picks the next maker for a content type in O(log n).
+ * Keeps one indexed min-heap per {@link Type}, ordered by (inactive, monthly cap reached, type count,
+ * total weight, random tie-break), and re-positions a maker whenever their tallies change.
+ */
+class MakerSelector {
+
+    private static final Type[] TYPES = Type.values();
+
+    private final ContentTally tally;
+    private final Random random;
+    // heaps[type][position] = maker id, positions[type][id] = position in that heap
+    private int[][] heaps;
+    private int[][] positions;
+    private int[] monthCounts;
+    private int[] tieBreakers;
+    private boolean[] active = new boolean[0];
+    private int monthlyCap = Integer.MAX_VALUE;
+    // Heap positions still to visit in peek(type, blocked), itself kept as a binary heap
+    private int[] frontier = new int[0];
+
+    MakerSelector(ContentTally tally, Random random) {
+        this.tally = tally;
+        this.random = random;
+        rebuild();
+    }
+
+    /**
+     * Re-creates every heap from the current tallies. Call after bulk tally changes or after makers were added.
+     */
+    void rebuild() {
+        int size = tally.size();
+        heaps = new int[TYPES.length][size];
+        positions = new int[TYPES.length][size];
+        monthCounts = monthCounts == null ? new int[size] : Arrays.copyOf(monthCounts, size);
+        int previousSize = active.length;
+        active = Arrays.copyOf(active, size);
+        Arrays.fill(active, previousSize, size, true);
+        tieBreakers = new int[size];
+        for (int id = 0; id < size; id++) {
+            tieBreakers[id] = random.nextInt();
+        }
+        for (int t = 0; t < TYPES.length; t++) {
+            for (int id = 0; id < size; id++) {
+                heaps[t][id] = id;
+                positions[t][id] = id;
+            }
+            for (int i = size / 2 - 1; i >= 0; i--) {
+                siftDown(t, i);
+            }
+        }
+    }
+
+    /**
+     * Clears the monthly counters and sets the per-maker limit for the month being generated.
+     */
+    void startMonth(int monthlyCap) {
+        this.monthlyCap = monthlyCap;
+        Arrays.fill(monthCounts, 0);
+        rebuild();
+    }
+
+    /**
+     * Returns the id of the best maker for the given type, or -1 if there are no active makers.
+     */
+    int peek(Type type) {
+        if (tally.size() == 0) return -1;
+        int id = heaps[type.ordinal()][0];
+        return active[id] ? id : -1;
+    }
+
+    /**
+     * Returns the best maker for the given type whose bit is not set in {@code blocked}, or -1 if every active maker
+     * is blocked. Walks the heap best-first from the root with a reusable frontier of heap positions, so the cost
+     * grows with the number of blocked makers, not with n.
+     */
+    int peek(Type type, long[] blocked) {
+        int best = peek(type);
+        if (best < 0 || blocked == null || !isBlocked(blocked, best)) return best;
+
+        int t = type.ordinal();
+        int[] heap = heaps[t];
+        if (frontier.length < heap.length) {
+            frontier = new int[heap.length];
+        }
+        int size = 0;
+        frontier[size++] = 0;
+        while (size > 0) {
+            int position = frontier[0];
+            frontier[0] = frontier[--size];
+            siftFrontierDown(t, size);
+            int id = heap[position];
+            // Inactive makers sort last, so everything left in the frontier is inactive too
+            if (!active[id]) return -1;
+            if (!isBlocked(blocked, id)) return id;
+
+            int left = 2 * position + 1;
+            if (left < heap.length) size = pushFrontier(t, size, left);
+            if (left + 1 < heap.length) size = pushFrontier(t, size, left + 1);
+        }
+        return -1;
+    }
+
+    private static boolean isBlocked(long[] blocked, int id) {
+        int word = id >>> 6;
+        return word < blocked.length && (blocked[word] & (1L << id)) != 0;
+    }
+
+    private int pushFrontier(int t, int size, int position) {
+        int[] heap = heaps[t];
+        int i = size;
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (!less(t, heap[position], heap[frontier[parent]])) break;
+            frontier[i] = frontier[parent];
+            i = parent;
+        }
+        frontier[i] = position;
+        return size + 1;
+    }
+
+    private void siftFrontierDown(int t, int size) {
+        if (size == 0) return;
+        int[] heap = heaps[t];
+        int position = frontier[0];
+        int i = 0;
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) break;
+            int right = left + 1;
+            int smallest = (right < size && less(t, heap[frontier[right]], heap[frontier[left]])) ? right : left;
+            if (!less(t, heap[frontier[smallest]], heap[position])) break;
+            frontier[i] = frontier[smallest];
+            i = smallest;
+        }
+        frontier[i] = position;
+    }
+
+    /**
+     * Excludes a maker from selection, or lets them back in. Their tallies are kept.
+     */
+    void setActive(int id, boolean isActive) {
+        active[id] = isActive;
+        updated(id);
+    }
+
+    boolean isActive(int id) {
+        return active[id];
+    }
+
+    /**
+     * Counts an assignment towards the maker's monthly cap.
+     */
+    void recordAssignment(int id) {
+        monthCounts[id]++;
+        updated(id);
+    }
+
+    /**
+     * Restores heap order after the maker's tallies changed.
+     */
+    void updated(int id) {
+        tieBreakers[id] = random.nextInt();
+        for (int t = 0; t < TYPES.length; t++) {
+            int position = positions[t][id];
+            siftUp(t, position);
+            siftDown(t, positions[t][id]);
+        }
+    }
+
+    private boolean less(int t, int a, int b) {
+        if (active[a] != active[b]) return active[a];
+
+        boolean aCapped = monthCounts[a] >= monthlyCap;
+        boolean bCapped = monthCounts[b] >= monthlyCap;
+        if (aCapped != bCapped) return bCapped;
+
+        Type type = TYPES[t];
+        int aCount = tally.count(a, type);
+        int bCount = tally.count(b, type);
+        if (aCount != bCount) return aCount < bCount;
+
+        int aWeight = tally.totalWeight(a);
+        int bWeight = tally.totalWeight(b);
+        if (aWeight != bWeight) return aWeight < bWeight;
+
+        if (tieBreakers[a] != tieBreakers[b]) return tieBreakers[a] < tieBreakers[b];
+        return a < b;
+    }
+
+    private void siftUp(int t, int position) {
+        int[] heap = heaps[t];
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (!less(t, heap[position], heap[parent])) break;
+            swap(t, position, parent);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int t, int position) {
+        int[] heap = heaps[t];
+        int size = heap.length;
+        while (true) {
+            int left = 2 * position + 1;
+            if (left >= size) break;
+            int right = left + 1;
+            int smallest = (right < size && less(t, heap[right], heap[left])) ? right : left;
+            if (!less(t, heap[smallest], heap[position])) break;
+            swap(t, position, smallest);
+            position = smallest;
+        }
+    }
+
+    private void swap(int t, int i, int j) {
+        int[] heap = heaps[t];
+        int tmp = heap[i];
+        heap[i] = heap[j];
+        heap[j] = tmp;
+        positions[t][heap[i]] = i;
+        positions[t][heap[j]] = j;
+    }
+}
@@ -0,0 +1,126 @@
+package schedule_manager;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Read-only view of a {@link BinaryScheduleFormat} file through a {@link MappedByteBuffer}.
+ * Opening it reads only the header and maker dictionary; each lookup reads one fixed-width record at a computed
+ * offset, so large archives can be queried without deserializing them. The file must not be modified while mapped.
+ */
+public final class MappedSchedule {
+
+    private final MappedByteBuffer buffer;
+    private final int recordsOffset;
+    private final int firstDay;
+    private final int dayCount;
+    private final String[] makers;
+
+    private MappedSchedule(MappedByteBuffer buffer, Path path) throws IOException {
+        this.buffer = buffer;
+        try {
+            if (buffer.getInt(0) != BinaryScheduleFormat.MAGIC) {
+                throw new IOException(path + " is not a binary schedule file");
+            }
+            short version = buffer.getShort(4);
+            if (version != BinaryScheduleFormat.VERSION) {
+                throw new IOException("Unsupported binary schedule version " + version + " in " + path);
+            }
+            this.recordsOffset = buffer.getInt(6);
+            this.firstDay = buffer.getInt(10);
+            this.dayCount = buffer.getInt(14);
+            this.makers = new String[buffer.getShort(18)];
+            int position = 20;
+            for (int i = 0; i < makers.length; i++) {
+                byte[] name = new byte[buffer.getShort(position)];
+                buffer.get(position + 2, name);
+                makers[i] = new String(name, StandardCharsets.UTF_8);
+                position += 2 + name.length;
+            }
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("Truncated binary schedule header in " + path, e);
+        }
+        if ((long) recordsOffset + (long) dayCount * BinaryScheduleFormat.RECORD_SIZE > buffer.capacity()) {
+            throw new IOException("Truncated binary schedule records in " + path);
+        }
+    }
+
+    public static MappedSchedule open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new MappedSchedule(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), path);
+        }
+    }
+
+    /**
+     * Returns the content on {@code date}, or null if the day is empty or outside the file.
+     */
+    public Content get(LocalDate date) {
+        long index = date.toEpochDay() - firstDay;
+        if (index < 0 || index >= dayCount) return null;
+        return read((int) index);
+    }
+
+    /**
+     * Returns one element per day of the month, null for days without content.
+     */
+    public Content[] month(YearMonth yearMonth) {
+        Content[] days = new Content[yearMonth.lengthOfMonth()];
+        long offset = yearMonth.atDay(1).toEpochDay() - firstDay;
+        for (int day = 0; day < days.length; day++) {
+            long index = offset + day;
+            if (index >= 0 && index < dayCount) {
+                days[day] = read((int) index);
+            }
+        }
+        return days;
+    }
+
+    /**
+     * Returns the first date covered by the file, or null if it is empty.
+     */
+    public LocalDate firstDate() {
+        return dayCount == 0 ? null : LocalDate.ofEpochDay(firstDay);
+    }
+
+    /**
+     * Returns the last date covered by the file, or null if it is empty.
+     */
+    public LocalDate lastDate() {
+        return dayCount == 0 ? null : LocalDate.ofEpochDay(firstDay + (long) dayCount - 1);
+    }
+
+    public List<String> getMakers() {
+        return List.of(makers);
+    }
+
+    /**
+     * Deserializes every record into a store.
+     */
+    public ScheduleStore load() {
+        ScheduleStore store = new ScheduleStore();
+        for (int i = 0; i < dayCount; i++) {
+            Content content = read(i);
+            if (content != null) {
+                store.put(content.getDate(), content);
+            }
+        }
+        return store;
+    }
+
+    private Content read(int index) {
+        int offset = recordsOffset + index * BinaryScheduleFormat.RECORD_SIZE;
+        byte type = buffer.get(offset + 4);
+        if (type < 0) return null;
+        short maker = buffer.getShort(offset + 5);
+        return new Content(BinaryScheduleFormat.typeOf(type), LocalDate.ofEpochDay(buffer.getInt(offset)),
+                maker < 0 ? null : makers[maker]);
+    }
+}
@@ -0,0 +1,579 @@
+package schedule_manager;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import utils.Json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+/**
+ * A schedule stored as a directory with one JSON file per month ({@code 2025-02.json}, same shape as a regular
+ * schedule file) and a {@code manifest.json} listing the months and each month's per-maker, per-type tallies.
+ * <p>
+ * Opening it reads only the manifest. A month's partition is loaded the first time one of its days is read or
+ * written, {@link #typeCounts()} answers from the manifest for months that were never loaded, and saving rewrites
+ * only the months that changed.
+ * <p>
+ * In journal mode each month's changes are appended to a journal next to its partition ({@code 2025-02.json.journal}),
+ * which is replayed when the month is loaded. Months with journal records are loaded on open, since their manifest
+ * tallies are out of date. {@link #saveToFile()} only forces the journals to disk; {@link #compact()} writes the
+ * changed months and empties their journals.
+ * <p>
+ * Outside edits are noticed through the manifest, which every save rewrites last; {@link #reload()} re-reads it and
+ * diffs the loaded months whose partition changed.
+ */
+public class PartitionedSchedule extends Schedule {
+
+    static final String MANIFEST = "manifest.json";
+    private static final int MANIFEST_VERSION = 1;
+    private static final ObjectReader MANIFEST_READER = Json.MAPPER.readerFor(Manifest.class);
+    private static final ObjectWriter MANIFEST_WRITER = Json.MAPPER.writerFor(Manifest.class)
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    private final Path directory;
+    // Months that have a partition file, with the tallies of that file as last saved
+    private final TreeMap<YearMonth, Map<String, int[]>> partitions = new TreeMap<>();
+    private final Set<YearMonth> loaded = new HashSet<>();
+    private final SortedSet<YearMonth> dirty = new TreeSet<>();
+    // Journals opened in journal mode, and how many records each month's journal file holds
+    private final Map<YearMonth, ScheduleJournal> journals = new HashMap<>();
+    private final Map<YearMonth, Integer> journalRecords = new HashMap<>();
+    private boolean journaling;
+    // Partition files and manifest as this process last read or wrote them
+    private final Map<YearMonth, FileStamp> partitionStamps = new HashMap<>();
+    private volatile FileStamp manifestSeen;
+
+    /**
+     * On-disk manifest. Tallies are listed in the order of {@code types}, so reordering {@link Type} keeps old
+     * manifests readable.
+     */
+    record Manifest(int version, List<Type> types, TreeMap<YearMonth, Map<String, int[]>> months) {
+    }
+
+    public PartitionedSchedule(String directory) {
+        this.directory = Path.of(directory);
+        deserialize();
+    }
+
+    @Override
+    public void serialize() {
+        try {
+            for (YearMonth month : dirty) {
+                Path path = partitionPath(month);
+                Map<LocalDate, Content> entries = new ScheduleStore();
+                for (Content content : super.month(month)) {
+                    if (content != null) entries.put(content.getDate(), content);
+                }
+
+                if (entries.isEmpty()) {
+                    Files.deleteIfExists(path);
+                    partitions.remove(month);
+                    partitionStamps.remove(month);
+                } else {
+                    ScheduleCodec.writeAtomically(entries, path);
+                    partitions.put(month, typeCounts(entries.values()));
+                    partitionStamps.put(month, FileStamp.of(path));
+                }
+                // The partition now holds every change, and stale records must not be replayed over later saves
+                clearJournal(month);
+            }
+            // Written last, so it never lists a partition that does not exist yet
+            writeManifest();
+
+            System.out.println("Partitioned schedule successfully serialized to " + directory
+                    + " (" + dirty.size() + " months written)");
+            dirty.clear();
+        } catch (JsonProcessingException e) {
+            System.err.println("Error serializing schedule: " + e.getMessage());
+            e.printStackTrace();
+        } catch (IOException e) {
+            System.err.println("Error writing schedule to " + directory + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public void deserialize() {
+        boolean wasJournaling = journaling;
+        setJournaling(false);
+        partitions.clear();
+        loaded.clear();
+        dirty.clear();
+        journalRecords.clear();
+        partitionStamps.clear();
+        replaceStore(new ScheduleStore());
+
+        try {
+            Files.createDirectories(directory);
+            Path manifestPath = directory.resolve(MANIFEST);
+            if (Files.exists(manifestPath)) {
+                partitions.putAll(readManifest());
+            } else {
+                partitions.putAll(scanPartitions());
+                writeManifest();
+            }
+            loadJournaledMonths();
+            System.out.println("Partitioned schedule opened from " + directory + " (" + partitions.size() + " months)");
+        } catch (JsonProcessingException e) {
+            System.err.println("Error deserializing schedule manifest: " + e.getMessage());
+            e.printStackTrace();
+        } catch (IOException e) {
+            System.err.println("Error reading schedule from " + directory + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+        journaling = wasJournaling;
+    }
+
+    /**
+     * Loads every month that has journal records and marks it changed, so it is written by the next compaction.
+     */
+    private void loadJournaledMonths() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.json.journal")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                YearMonth month;
+                try {
+                    month = YearMonth.parse(name.substring(0, name.length() - ".json.journal".length()));
+                } catch (DateTimeParseException e) {
+                    continue;
+                }
+                ensureLoaded(month);
+                if (journalRecords.getOrDefault(month, 0) > 0) {
+                    dirty.add(month);
+                }
+            }
+        }
+    }
+
+    private TreeMap<YearMonth, Map<String, int[]>> readManifest() throws IOException {
+        Path manifestPath = directory.resolve(MANIFEST);
+        // Stamped before reading, so an edit that lands mid-read still shows up as a change later
+        manifestSeen = FileStamp.of(manifestPath);
+        Manifest manifest = MANIFEST_READER.readValue(manifestPath.toFile());
+        if (manifest.version() != MANIFEST_VERSION) {
+            throw new IOException("Unsupported schedule manifest version " + manifest.version());
+        }
+        TreeMap<YearMonth, Map<String, int[]>> partitions = new TreeMap<>();
+        List<Type> types = manifest.types();
+        for (Map.Entry<YearMonth, Map<String, int[]>> month : manifest.months().entrySet()) {
+            Map<String, int[]> counts = new HashMap<>();
+            for (Map.Entry<String, int[]> maker : month.getValue().entrySet()) {
+                int[] byOrdinal = new int[Type.values().length];
+                for (int i = 0; i < types.size(); i++) {
+                    byOrdinal[types.get(i).ordinal()] = maker.getValue()[i];
+                }
+                counts.put(maker.getKey(), byOrdinal);
+            }
+            partitions.put(month.getKey(), counts);
+        }
+        return partitions;
+    }
+
+    /**
+     * Recreates the tallies from the partition files when the manifest is missing; this reads every partition once.
+     */
+    private TreeMap<YearMonth, Map<String, int[]>> scanPartitions() throws IOException {
+        TreeMap<YearMonth, Map<String, int[]>> partitions = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.json")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                YearMonth month;
+                try {
+                    month = YearMonth.parse(name.substring(0, name.length() - ".json".length()));
+                } catch (DateTimeParseException e) {
+                    continue;
+                }
+                partitions.put(month, typeCounts(ScheduleCodec.read(file, getMakers()).values()));
+            }
+        }
+        return partitions;
+    }
+
+    private void writeManifest() throws IOException {
+        Manifest manifest = new Manifest(MANIFEST_VERSION, List.of(Type.values()), partitions);
+        Path manifestPath = directory.resolve(MANIFEST);
+        ScheduleCodec.replaceAtomically(manifestPath, out -> MANIFEST_WRITER.writeValue(out, manifest));
+        manifestSeen = FileStamp.of(manifestPath);
+    }
+
+    /**
+     * Loads every partition and returns the whole schedule. Changes made through the returned map are not tracked
+     * and will not be saved; use {@link #addEntry} and {@link #removeEntry}.
+     */
+    @Override
+    public Map<LocalDate, Content> getSchedule() {
+        for (YearMonth month : partitions.keySet()) {
+            ensureLoaded(month);
+        }
+        return super.getSchedule();
+    }
+
+    @Override
+    public void setSchedule(Map<LocalDate, Content> schedule) {
+        // Every existing partition is rewritten, or deleted if the new schedule leaves it empty
+        dirty.addAll(partitions.keySet());
+        loaded.addAll(partitions.keySet());
+        super.setSchedule(schedule);
+        for (LocalDate date : schedule.keySet()) {
+            YearMonth month = YearMonth.from(date);
+            loaded.add(month);
+            dirty.add(month);
+        }
+        if (journaling) {
+            compact();
+        }
+    }
+
+    @Override
+    public void addEntry(LocalDate date, Content content) {
+        YearMonth month = YearMonth.from(date);
+        ensureLoaded(month);
+        super.addEntry(date, content);
+        dirty.add(month);
+        if (journaling) {
+            try {
+                journalFor(month).appendPut(date, content);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error appending to schedule journal", e);
+            }
+        }
+    }
+
+    @Override
+    public Content removeEntry(LocalDate date) {
+        YearMonth month = YearMonth.from(date);
+        ensureLoaded(month);
+        Content removed = super.removeEntry(date);
+        if (removed != null) {
+            dirty.add(month);
+            if (journaling) {
+                try {
+                    journalFor(month).appendRemove(date);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Error appending to schedule journal", e);
+                }
+            }
+        }
+        return removed;
+    }
+
+    @Override
+    public Content getEntry(LocalDate date) {
+        ensureLoaded(YearMonth.from(date));
+        return super.getEntry(date);
+    }
+
+    @Override
+    public LocalDate lastDate() {
+        // Months written since the last save are loaded, so the candidates are the saved and the loaded months
+        TreeSet<YearMonth> months = new TreeSet<>(partitions.keySet());
+        months.addAll(loaded);
+        for (YearMonth month : months.descendingSet()) {
+            ensureLoaded(month);
+            Content[] days = super.month(month);
+            for (int day = days.length - 1; day >= 0; day--) {
+                if (days[day] != null) return days[day].getDate();
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public List<Content> entriesBetween(LocalDate from, LocalDate to) {
+        loadBetween(from, to);
+        return super.entriesBetween(from, to);
+    }
+
+    @Override
+    public Content[] month(YearMonth yearMonth) {
+        ensureLoaded(yearMonth);
+        return super.month(yearMonth);
+    }
+
+    /**
+     * Combines the manifest tallies of months that were never loaded with the indexed counts of the loaded ones.
+     */
+    @Override
+    public Map<String, int[]> typeCounts() {
+        Map<String, int[]> counts = super.typeCounts();
+        for (Map.Entry<YearMonth, Map<String, int[]>> partition : partitions.entrySet()) {
+            if (!loaded.contains(partition.getKey())) {
+                addCounts(counts, partition.getValue());
+            }
+        }
+        return counts;
+    }
+
+    @Override
+    public List<Content> entriesOf(String maker, LocalDate from, LocalDate to) {
+        loadBetween(from, to);
+        return super.entriesOf(maker, from, to);
+    }
+
+    @Override
+    public List<Content> entriesOf(Type type, LocalDate from, LocalDate to) {
+        loadBetween(from, to);
+        return super.entriesOf(type, from, to);
+    }
+
+    @Override
+    public List<Content> entriesOf(String maker, Type type, LocalDate from, LocalDate to) {
+        loadBetween(from, to);
+        return super.entriesOf(maker, type, from, to);
+    }
+
+    /**
+     * Walks the months from {@code from} onwards, loading only those whose tallies show a matching entry.
+     */
+    @Override
+    public Content nextEntry(String maker, Type type, LocalDate from) {
+        TreeSet<YearMonth> months = new TreeSet<>(partitions.tailMap(YearMonth.from(from), true).keySet());
+        // Changed months may not have a partition yet, and their manifest tallies are out of date
+        months.addAll(dirty.tailSet(YearMonth.from(from)));
+        for (YearMonth month : months) {
+            if (!dirty.contains(month)) {
+                int[] counts = partitions.get(month).get(maker);
+                if (counts == null || counts[type.ordinal()] == 0) continue;
+            }
+            ensureLoaded(month);
+            LocalDate start = month.equals(YearMonth.from(from)) ? from : month.atDay(1);
+            List<Content> entries = super.entriesOf(maker, type, start, month.atEndOfMonth());
+            if (!entries.isEmpty()) return entries.get(0);
+        }
+        return null;
+    }
+
+    private static void addCounts(Map<String, int[]> total, Map<String, int[]> counts) {
+        for (Map.Entry<String, int[]> maker : counts.entrySet()) {
+            int[] sum = total.computeIfAbsent(maker.getKey(), k -> new int[Type.values().length]);
+            for (int i = 0; i < sum.length; i++) {
+                sum[i] += maker.getValue()[i];
+            }
+        }
+    }
+
+    @Override
+    public void saveToFile() {
+        if (!journaling) {
+            serialize();
+            return;
+        }
+        int records = 0;
+        for (ScheduleJournal journal : journals.values()) {
+            records += journal.records();
+        }
+        if (records > Math.max(MIN_COMPACTION_RECORDS, store().size())) {
+            compact();
+            return;
+        }
+        try {
+            for (ScheduleJournal journal : journals.values()) {
+                journal.sync();
+            }
+        } catch (IOException e) {
+            System.err.println("Error syncing schedule journal: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Writes the changed months and empties their journals.
+     */
+    @Override
+    public void compact() {
+        serialize();
+    }
+
+    /**
+     * Re-reads the manifest and brings the loaded months in line with their partitions: months whose partition file
+     * changed, or that have unsaved changes, are re-read with their journal and diffed day by day. Months that were
+     * never loaded keep no contents to diff against, so if their tallies changed all of their days are reported.
+     * Returns the changed dates in order. If the manifest or a partition cannot be read the schedule is left as it was.
+     */
+    @Override
+    public List<LocalDate> reload() throws IOException {
+        for (ScheduleJournal journal : journals.values()) {
+            journal.sync();
+        }
+        Path manifestPath = directory.resolve(MANIFEST);
+        TreeMap<YearMonth, Map<String, int[]>> updated = Files.exists(manifestPath) ? readManifest() : scanPartitions();
+
+        // Read everything first, so a failure leaves the schedule untouched
+        Map<YearMonth, ScheduleStore> reread = new TreeMap<>();
+        Map<YearMonth, FileStamp> stamps = new HashMap<>();
+        for (YearMonth month : loaded) {
+            Path path = partitionPath(month);
+            FileStamp stamp = Files.exists(path) ? FileStamp.of(path) : null;
+            if (!dirty.contains(month) && Objects.equals(stamp, partitionStamps.get(month))) continue;
+
+            ScheduleStore store = stamp != null ? ScheduleCodec.read(path, getMakers()) : new ScheduleStore();
+            ScheduleJournal.replay(journalPath(month), store, getMakers());
+            reread.put(month, store);
+            stamps.put(month, stamp);
+        }
+
+        List<LocalDate> changed = new ArrayList<>();
+        for (Map.Entry<YearMonth, ScheduleStore> month : reread.entrySet()) {
+            if (stamps.get(month.getKey()) != null) {
+                partitionStamps.put(month.getKey(), stamps.get(month.getKey()));
+            } else {
+                partitionStamps.remove(month.getKey());
+            }
+            Content[] days = super.month(month.getKey());
+            for (int day = 1; day <= days.length; day++) {
+                LocalDate date = month.getKey().atDay(day);
+                Content current = days[day - 1];
+                Content content = month.getValue().get(date);
+                if (current == null && content == null || sameEntry(current, content)) continue;
+                if (content == null) {
+                    super.removeEntry(date);
+                } else {
+                    super.addEntry(date, content);
+                }
+                changed.add(date);
+            }
+            if (journalRecords.getOrDefault(month.getKey(), 0) == 0 && !journals.containsKey(month.getKey())) {
+                dirty.remove(month.getKey());
+            }
+        }
+
+        TreeSet<YearMonth> months = new TreeSet<>(partitions.keySet());
+        months.addAll(updated.keySet());
+        for (YearMonth month : months) {
+            if (loaded.contains(month) || sameCounts(partitions.get(month), updated.get(month))) continue;
+            for (int day = 1; day <= month.lengthOfMonth(); day++) {
+                changed.add(month.atDay(day));
+            }
+        }
+        partitions.clear();
+        partitions.putAll(updated);
+        Collections.sort(changed);
+        return changed;
+    }
+
+    private static boolean sameCounts(Map<String, int[]> a, Map<String, int[]> b) {
+        if (a == null || b == null) return a == b;
+        if (!a.keySet().equals(b.keySet())) return false;
+        for (Map.Entry<String, int[]> maker : a.entrySet()) {
+            if (!Arrays.equals(maker.getValue(), b.get(maker.getKey()))) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Whether the manifest differs from the version this process last read or wrote.
+     */
+    @Override
+    boolean changedOnDisk() {
+        Path manifestPath = directory.resolve(MANIFEST);
+        FileStamp seen = manifestSeen;
+        try {
+            return seen == null || !seen.equals(FileStamp.of(manifestPath));
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    @Override
+    Path watchedPath() {
+        return directory.resolve(MANIFEST);
+    }
+
+    /**
+     * Turns journal mode on or off; journals are opened per month on the first change to that month.
+     * See {@link Schedule#setJournaling}.
+     */
+    @Override
+    public void setJournaling(boolean enabled) {
+        if (!enabled) {
+            try {
+                for (Map.Entry<YearMonth, ScheduleJournal> entry : journals.entrySet()) {
+                    entry.getValue().sync();
+                    journalRecords.put(entry.getKey(), entry.getValue().records());
+                    entry.getValue().close();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error closing schedule journal", e);
+            } finally {
+                journals.clear();
+            }
+        }
+        this.journaling = enabled;
+    }
+
+    @Override
+    public boolean isJournaling() {
+        return journaling;
+    }
+
+    private ScheduleJournal journalFor(YearMonth month) throws IOException {
+        ScheduleJournal journal = journals.get(month);
+        if (journal == null) {
+            journal = new ScheduleJournal(journalPath(month), journalRecords.getOrDefault(month, 0));
+            journals.put(month, journal);
+        }
+        return journal;
+    }
+
+    private void clearJournal(YearMonth month) throws IOException {
+        ScheduleJournal journal = journals.get(month);
+        if (journal != null) {
+            journal.truncate();
+        } else {
+            Files.deleteIfExists(journalPath(month));
+        }
+        journalRecords.remove(month);
+    }
+
+    @Override
+    String getFilename() {
+        return directory.getFileName().toString();
+    }
+
+    private void loadBetween(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) return;
+        for (YearMonth month : partitions.subMap(YearMonth.from(from), true, YearMonth.from(to), true).keySet()) {
+            ensureLoaded(month);
+        }
+    }
+
+    private void ensureLoaded(YearMonth month) {
+        if (!loaded.add(month)) return;
+        Path journal = journalPath(month);
+        if (!partitions.containsKey(month) && !Files.exists(journal)) return;
+        try {
+            ScheduleStore store = store();
+            if (partitions.containsKey(month)) {
+                partitionStamps.put(month, FileStamp.of(partitionPath(month)));
+                for (Content content : ScheduleCodec.read(partitionPath(month), getMakers()).values()) {
+                    store.put(content.getDate(), content);
+                }
+            }
+            int records = ScheduleJournal.replay(journal, store, getMakers());
+            if (records > 0) {
+                journalRecords.put(month, records);
+            }
+        } catch (IOException e) {
+            loaded.remove(month);
+            throw new UncheckedIOException("Error reading schedule partition " + partitionPath(month), e);
+        }
+    }
+
+    private Path partitionPath(YearMonth month) {
+        return directory.resolve(month + ".json");
+    }
+
+    private Path journalPath(YearMonth month) {
+        return ScheduleJournal.pathFor(partitionPath(month));
+    }
+}
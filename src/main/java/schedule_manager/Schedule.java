@@ -1,25 +1,44 @@
 package schedule_manager;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.*;
 
 public class Schedule {
 
-    private Map<LocalDate, Content> schedule;
+    // In journal mode the journal is folded into the snapshot once it outgrows the schedule, or this many records
+    static final int MIN_COMPACTION_RECORDS = 4096;
+
+    private ScheduleStore schedule;
     private File file;
+    private final MakerDictionary makers = new MakerDictionary();
+    private ScheduleJournal journal;
+    private int journalRecords;
+    // The file as this process last read or wrote it, so a watcher can tell its own saves from outside edits
+    private volatile FileStamp lastSeen;
+
+    /**
+     * Identity, modification time and size of a file. Atomic saves rename a new file into place, so even a save
+     * within the same clock tick changes the file key.
+     */
+    record FileStamp(Object fileKey, FileTime modified, long size) {
+        static FileStamp of(Path path) throws IOException {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            return new FileStamp(attributes.fileKey(), attributes.lastModifiedTime(), attributes.size());
+        }
+    }
 
     public Schedule() {
-        this.schedule = new HashMap<>();
+        this.schedule = new ScheduleStore();
     }
 
     public Schedule(String filepath) {
@@ -33,7 +52,11 @@ public class Schedule {
     private void createEmptyScheduleFile() {
         try {
             if (file.createNewFile()) {
-                Files.writeString(file.toPath(), "{}"); // Write an empty JSON object
+                if (isBinary()) {
+                    BinaryScheduleFormat.write(new ScheduleStore(), file.toPath());
+                } else {
+                    Files.writeString(file.toPath(), "{}"); // Write an empty JSON object
+                }
                 System.out.println("Created new empty schedule file: " + file.getPath());
             }
         } catch (IOException e) {
@@ -42,13 +65,22 @@ public class Schedule {
     }
 
     public void serialize() {
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.registerModule(new JavaTimeModule());
-        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-
         try {
-            String json = mapper.writeValueAsString(schedule);
-            Files.writeString(file.toPath(), json);
+            if (isBinary()) {
+                // Replaced by rename rather than rewritten in place, in case the old file is still mapped
+                BinaryScheduleFormat.writeAtomically(schedule, file.toPath());
+            } else {
+                // Written next to the file and renamed over it, so a crash never leaves a half-written schedule
+                ScheduleCodec.writeAtomically(schedule, file.toPath());
+            }
+            markSeen();
+            // The snapshot now holds every change, and stale records must not be replayed over later saves
+            if (journal != null) {
+                journal.truncate();
+            } else {
+                Files.deleteIfExists(journalPath());
+            }
+            journalRecords = 0;
             System.out.println("schedule_manager.Schedule successfully serialized to " + file.getPath());
         } catch (JsonProcessingException e) {
             System.err.println("Error serializing schedule: " + e.getMessage());
@@ -61,16 +93,14 @@ public class Schedule {
 
 
     public void deserialize() {
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.registerModule(new JavaTimeModule());
-        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-
         try {
-            String json = Files.readString(file.toPath());
-
-            this.schedule = mapper.readValue(json, new TypeReference<Map<LocalDate, Content>>() {});
+            if (journal != null) {
+                journal.sync();
+            }
+            this.schedule = readFile();
 
-            System.out.println("Schedule successfully deserialized from " + file.getPath());
+            System.out.println("Schedule successfully deserialized from " + file.getPath()
+                    + (journalRecords > 0 ? " (" + journalRecords + " journal records replayed)" : ""));
         } catch (JsonProcessingException e) {
             System.err.println("Error deserializing schedule: " + e.getMessage());
             e.printStackTrace();
@@ -80,26 +110,311 @@ public class Schedule {
         }
     }
 
+    /**
+     * Reads the snapshot and any journal from disk.
+     */
+    private ScheduleStore readFile() throws IOException {
+        // Stamped before reading, so an edit that lands mid-read still shows up as a change later
+        markSeen();
+        ScheduleStore store;
+        if (isBinary()) {
+            store = BinaryScheduleFormat.read(file.toPath());
+            for (Content content : store.values()) {
+                makers.intern(content);
+            }
+        } else {
+            store = ScheduleCodec.read(file.toPath(), makers);
+        }
+        this.journalRecords = ScheduleJournal.replay(journalPath(), store, makers);
+        return store;
+    }
+
+    /**
+     * Re-reads the file and applies only the days that differ from the schedule in memory, through
+     * {@link #addEntry}/{@link #removeEntry} so indexes and the journal stay consistent.
+     * Returns the changed dates in order. If the file cannot be read the schedule is left as it was.
+     */
+    public List<LocalDate> reload() throws IOException {
+        if (journal != null) {
+            journal.sync();
+        }
+        ScheduleStore updated = readFile();
+
+        List<LocalDate> changed = new ArrayList<>();
+        for (Map.Entry<LocalDate, Content> entry : updated.entrySet()) {
+            if (!sameEntry(schedule.get(entry.getKey()), entry.getValue())) {
+                changed.add(entry.getKey());
+            }
+        }
+        for (LocalDate date : schedule.keySet()) {
+            if (!updated.containsKey(date)) {
+                changed.add(date);
+            }
+        }
+        Collections.sort(changed);
+
+        for (LocalDate date : changed) {
+            Content content = updated.get(date);
+            if (content == null) {
+                removeEntry(date);
+            } else {
+                addEntry(date, content);
+            }
+        }
+        return changed;
+    }
+
+    static boolean sameEntry(Content a, Content b) {
+        return a != null && b != null && a.getType() == b.getType() && Objects.equals(a.getMaker(), b.getMaker())
+                && Objects.equals(a.getDate(), b.getDate());
+    }
+
     public Map<LocalDate, Content> getSchedule() {
         return schedule;
     }
 
+    /**
+     * Replaces the schedule with a copy of the given entries. In journal mode the replacement is compacted right away.
+     */
     public void setSchedule(Map<LocalDate, Content> schedule) {
-        this.schedule = schedule;
+        this.schedule = new ScheduleStore(schedule);
+        for (Content content : this.schedule.values()) {
+            makers.intern(content);
+        }
+        if (journal != null) {
+            compact();
+        }
     }
 
     public void addEntry(LocalDate date, Content content) {
-        this.schedule.put(date, content);
+        this.schedule.put(date, makers.intern(content));
+        if (journal != null) {
+            try {
+                journal.appendPut(date, content);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error appending to schedule journal", e);
+            }
+        }
+    }
+
+    public Content removeEntry(LocalDate date) {
+        Content removed = this.schedule.remove(date);
+        if (journal != null && removed != null) {
+            try {
+                journal.appendRemove(date);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error appending to schedule journal", e);
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Returns, per maker, how many entries of each type they have, indexed by {@link Type#ordinal()}.
+     */
+    public Map<String, int[]> typeCounts() {
+        return schedule.typeCounts();
+    }
+
+    /**
+     * Returns the entries of {@code maker} from {@code from} to {@code to}, both inclusive, in date order.
+     */
+    public List<Content> entriesOf(String maker, LocalDate from, LocalDate to) {
+        return schedule.entriesOf(maker, from, to);
+    }
+
+    /**
+     * Returns the entries of {@code type} from {@code from} to {@code to}, both inclusive, in date order.
+     */
+    public List<Content> entriesOf(Type type, LocalDate from, LocalDate to) {
+        return schedule.entriesOf(type, from, to);
+    }
+
+    /**
+     * Returns the entries of {@code type} made by {@code maker} from {@code from} to {@code to}, both inclusive.
+     */
+    public List<Content> entriesOf(String maker, Type type, LocalDate from, LocalDate to) {
+        return schedule.entriesOf(maker, type, from, to);
+    }
+
+    /**
+     * Returns the first entry of {@code type} by {@code maker} on or after {@code from}, or null if there is none.
+     */
+    public Content nextEntry(String maker, Type type, LocalDate from) {
+        return schedule.nextEntry(maker, type, from);
+    }
+
+    static Map<String, int[]> typeCounts(Iterable<Content> contents) {
+        Map<String, int[]> counts = new HashMap<>();
+        for (Content content : contents) {
+            if (content == null || content.getMaker() == null) continue;
+            counts.computeIfAbsent(content.getMaker(), k -> new int[Type.values().length])[content.getType().ordinal()]++;
+        }
+        return counts;
+    }
+
+    /**
+     * Turns journal mode on or off. While it is on, every {@link #addEntry}/{@link #removeEntry} appends a record to
+     * {@code <file>.journal} and {@link #saveToFile()} only forces those records to disk, so a save costs as much as
+     * the changes since the last one and an interrupted run resumes from the last save. The journal is replayed
+     * over the snapshot on load and folded into it by {@link #compact()}.
+     * Changes made directly through {@link #getSchedule()} bypass the journal.
+     */
+    public void setJournaling(boolean enabled) {
+        if (file == null) {
+            throw new IllegalStateException("File not specified. Cannot journal the schedule.");
+        }
+        try {
+            if (enabled && journal == null) {
+                journal = new ScheduleJournal(journalPath(), journalRecords);
+            } else if (!enabled && journal != null) {
+                journal.sync();
+                journalRecords = journal.records();
+                journal.close();
+                journal = null;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error opening schedule journal", e);
+        }
+    }
+
+    public boolean isJournaling() {
+        return journal != null;
+    }
+
+    /**
+     * Atomically replaces the snapshot with the current schedule and empties the journal.
+     * A crash in between only leaves records that the new snapshot already contains.
+     */
+    public void compact() {
+        try {
+            if (isBinary()) {
+                BinaryScheduleFormat.writeAtomically(schedule, file.toPath());
+            } else {
+                ScheduleCodec.writeAtomically(schedule, file.toPath());
+            }
+            markSeen();
+            if (journal != null) {
+                journal.truncate();
+            } else {
+                Files.deleteIfExists(journalPath());
+            }
+            journalRecords = 0;
+            System.out.println("Schedule journal compacted into " + file.getPath());
+        } catch (IOException e) {
+            System.err.println("Error compacting schedule journal: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    public Content getEntry(LocalDate date) {
+        return this.schedule.get(date);
+    }
+
+    /**
+     * Returns the latest scheduled date, or null if the schedule is empty.
+     */
+    public LocalDate lastDate() {
+        return schedule.lastDate();
+    }
+
+    /**
+     * Returns the entries from {@code from} to {@code to}, both inclusive, in date order.
+     */
+    public List<Content> entriesBetween(LocalDate from, LocalDate to) {
+        return schedule.entriesBetween(from, to);
+    }
+
+    /**
+     * Returns one element per day of the month, null for days without content.
+     */
+    public Content[] month(YearMonth yearMonth) {
+        return schedule.month(yearMonth);
     }
 
     public void saveToFile() {
-        if (file != null) {
+        if (journal != null) {
+            if (journal.records() > Math.max(MIN_COMPACTION_RECORDS, schedule.size())) {
+                compact();
+                return;
+            }
+            try {
+                journal.sync();
+            } catch (IOException e) {
+                System.err.println("Error syncing schedule journal: " + e.getMessage());
+                e.printStackTrace();
+            }
+        } else if (file != null) {
             serialize();
         } else {
             System.err.println("File not specified. Cannot save the schedule.");
         }
     }
 
+    /**
+     * Returns the dictionary that every entry's maker name is interned through.
+     */
+    public MakerDictionary getMakers() {
+        return makers;
+    }
+
+    ScheduleStore store() {
+        return schedule;
+    }
+
+    void replaceStore(ScheduleStore store) {
+        this.schedule = store;
+    }
+
+    /**
+     * Remembers the file as it is now as this process's own version. Called after every read and write of the file.
+     */
+    void markSeen() {
+        try {
+            lastSeen = FileStamp.of(file.toPath());
+        } catch (IOException e) {
+            lastSeen = null;
+        }
+    }
+
+    /**
+     * Whether the file differs from the version this process last read or wrote, i.e. someone else changed it.
+     */
+    boolean changedOnDisk() {
+        if (file == null) return false;
+        FileStamp seen = lastSeen;
+        try {
+            return seen == null || !seen.equals(FileStamp.of(file.toPath()));
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Returns the file whose changes {@link #reload()} picks up, or null if there is none.
+     */
+    Path watchedPath() {
+        return path();
+    }
+
+    /**
+     * Returns the snapshot file, or null for schedules that are not backed by a single file.
+     */
+    Path path() {
+        return file == null ? null : file.toPath();
+    }
+
+    /**
+     * Files ending in {@value BinaryScheduleFormat#EXTENSION} use the binary format, everything else JSON.
+     */
+    private boolean isBinary() {
+        return BinaryScheduleFormat.isBinary(file.toPath());
+    }
+
+    Path journalPath() {
+        return ScheduleJournal.pathFor(file.toPath());
+    }
+
     String getFilename() {
         return file.getName();
     }
@@ -113,11 +428,7 @@ public class Schedule {
 
     public String printScheduleMonth(YearMonth specifiedMonth) {
         StringBuilder sb = new StringBuilder();
-        LocalDate firstDayOfMonth = specifiedMonth.atDay(1);
-        int daysInMonth = specifiedMonth.lengthOfMonth();
-        for (int day = 1; day <= daysInMonth; day++) {
-            LocalDate date = firstDayOfMonth.withDayOfMonth(day);
-            Content content = schedule.get(date);
+        for (Content content : month(specifiedMonth)) {
             sb.append(content);
             sb.append("\n");
         }
@@ -0,0 +1,187 @@
+package schedule_manager;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import utils.Json;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Streams schedule JSON ({@code {"2025-02-01": {"type": ..., "date": ..., "maker": ...}, ...}}) between buffered
+ * file channels and a {@link ScheduleStore} one entry at a time, so the document is never held as a String.
+ * Entries are read token by token and maker names interned through a {@link MakerDictionary}; the writer is built
+ * once and is thread-safe.
+ */
+public final class ScheduleCodec {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final ObjectWriter CONTENT_WRITER = Json.MAPPER.writerFor(Content.class);
+
+    private ScheduleCodec() {
+    }
+
+    public static ScheduleStore read(Path path) throws IOException {
+        return read(path, new MakerDictionary());
+    }
+
+    /**
+     * Reads a schedule file, resolving maker names through {@code makers} so entries share one String per maker.
+     */
+    public static ScheduleStore read(Path path, MakerDictionary makers) throws IOException {
+        try (InputStream in = new BufferedInputStream(Channels.newInputStream(FileChannel.open(path, StandardOpenOption.READ)), BUFFER_SIZE)) {
+            return read(in, makers);
+        }
+    }
+
+    public static ScheduleStore read(InputStream in, MakerDictionary makers) throws IOException {
+        ScheduleStore store = new ScheduleStore();
+        try (JsonParser parser = Json.MAPPER.getFactory().createParser(in)) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                return store;
+            }
+            if (token != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a JSON object of dates at " + parser.currentLocation());
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                LocalDate date = parseDate(parser, parser.currentName());
+                Content content = readContent(parser, date, makers);
+                if (content != null) {
+                    store.put(date, content);
+                }
+            }
+        }
+        return store;
+    }
+
+    /**
+     * Reads one {@code {"type": ..., "date": ..., "maker": ...}} value field by field, without data binding.
+     */
+    private static Content readContent(JsonParser parser, LocalDate key, MakerDictionary makers) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.VALUE_NULL) return null;
+        if (token != JsonToken.START_OBJECT) {
+            throw new IOException("Expected a content object for " + key + " at " + parser.currentLocation());
+        }
+
+        Type type = null;
+        LocalDate date = key;
+        String maker = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "type" -> type = value == JsonToken.VALUE_NULL ? null : parseType(parser);
+                case "date" -> date = value == JsonToken.VALUE_NULL ? key : parseDate(parser, parser.getText());
+                case "maker" -> maker = value == JsonToken.VALUE_NULL ? null : makers.intern(parser.getText());
+                default -> parser.skipChildren();
+            }
+        }
+        if (type == null) {
+            throw new IOException("Content for " + key + " has no type at " + parser.currentLocation());
+        }
+        return new Content(type, date, maker);
+    }
+
+    private static Type parseType(JsonParser parser) throws IOException {
+        String name = parser.getText();
+        try {
+            return Type.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Unknown content type '" + name + "' at " + parser.currentLocation(), e);
+        }
+    }
+
+    public static void write(Map<LocalDate, Content> schedule, Path path) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Channels.newOutputStream(FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)), BUFFER_SIZE)) {
+            write(schedule, out);
+        }
+    }
+
+    /**
+     * Writes the schedule to a unique temporary sibling file, forces it to disk and atomically renames it over {@code path},
+     * so a crash leaves either the old file or the new one, never a partial write.
+     */
+    public static void writeAtomically(Map<LocalDate, Content> schedule, Path path) throws IOException {
+        replaceAtomically(path, out -> write(schedule, out));
+    }
+
+    /**
+     * Writes whatever {@code writer} produces through a forced temporary file renamed over {@code path}.
+     */
+    static void replaceAtomically(Path path, StreamWriter writer) throws IOException {
+        // A unique temporary file, so concurrent writers of the same path never share one
+        Path temp = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+                writer.write(out);
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @FunctionalInterface
+    interface StreamWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Writes the schedule and flushes {@code out}, leaving it open.
+     */
+    public static void write(Map<LocalDate, Content> schedule, OutputStream out) throws IOException {
+        try (JsonGenerator generator = Json.MAPPER.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            generator.writeStartObject();
+            for (Map.Entry<LocalDate, Content> entry : schedule.entrySet()) {
+                generator.writeFieldName(entry.getKey().toString());
+                CONTENT_WRITER.writeValue(generator, entry.getValue());
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    private static LocalDate parseDate(JsonParser parser, String text) throws IOException {
+        try {
+            // Fast path for the plain yyyy-MM-dd form every writer produces; DateTimeFormatter is much slower
+            if (text.length() == 10 && text.charAt(4) == '-' && text.charAt(7) == '-') {
+                int year = digits(text, 0, 4);
+                int month = digits(text, 5, 7);
+                int day = digits(text, 8, 10);
+                if (year >= 0 && month >= 0 && day >= 0) {
+                    return LocalDate.of(year, month, day);
+                }
+            }
+            return LocalDate.parse(text);
+        } catch (DateTimeException e) {
+            throw new IOException("Invalid schedule date '" + text + "' at " + parser.currentLocation(), e);
+        }
+    }
+
+    private static int digits(String text, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
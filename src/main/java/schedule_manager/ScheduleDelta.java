@@ -0,0 +1,34 @@
+package schedule_manager;
+
+import java.time.LocalDate;
+
+/**
+ * A change to the team or the plan that {@link IncrementalRescheduler} can apply without regenerating
+ * the whole schedule.
+ */
+public sealed interface ScheduleDelta {
+
+    /**
+     * A maker joined the team; slots from {@code from} onwards are re-balanced to include them.
+     */
+    record MakerAdded(String maker, LocalDate from) implements ScheduleDelta {
+    }
+
+    /**
+     * A maker left the team; their slots from {@code from} onwards are handed to the others.
+     */
+    record MakerRemoved(String maker, LocalDate from) implements ScheduleDelta {
+    }
+
+    /**
+     * A manual edit of one day; a null {@code maker} clears the day.
+     */
+    record DateReassigned(LocalDate date, String maker) implements ScheduleDelta {
+    }
+
+    /**
+     * The weekly template rotation changes from {@code from} onwards.
+     */
+    record TemplateChanged(TemplateRotation rotation, LocalDate from) implements ScheduleDelta {
+    }
+}
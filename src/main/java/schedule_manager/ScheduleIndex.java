@@ -0,0 +1,70 @@
+package schedule_manager;
+
+import java.util.*;
+
+/**
+ * Secondary indexes of a {@link ScheduleStore}: for each maker and each type, a {@link BitSet} of the store slots
+ * they occupy, plus per-maker counts by type. Slots are in date order, so walking a bit set visits dates in order
+ * and a date range is a range of bits.
+ */
+class ScheduleIndex {
+
+    private static final int TYPE_COUNT = Type.values().length;
+
+    private final Map<String, BitSet> slotsByMaker = new HashMap<>();
+    private final BitSet[] slotsByType = new BitSet[TYPE_COUNT];
+    private final Map<String, int[]> countsByMaker = new HashMap<>();
+
+    ScheduleIndex() {
+        for (int t = 0; t < TYPE_COUNT; t++) {
+            slotsByType[t] = new BitSet();
+        }
+    }
+
+    void add(int slot, Content content) {
+        slotsByType[content.getType().ordinal()].set(slot);
+        String maker = content.getMaker();
+        if (maker != null) {
+            slotsByMaker.computeIfAbsent(maker, k -> new BitSet()).set(slot);
+            countsByMaker.computeIfAbsent(maker, k -> new int[TYPE_COUNT])[content.getType().ordinal()]++;
+        }
+    }
+
+    void remove(int slot, Content content) {
+        slotsByType[content.getType().ordinal()].clear(slot);
+        String maker = content.getMaker();
+        if (maker != null) {
+            BitSet slots = slotsByMaker.get(maker);
+            slots.clear(slot);
+            int[] counts = countsByMaker.get(maker);
+            counts[content.getType().ordinal()]--;
+            if (slots.isEmpty()) {
+                slotsByMaker.remove(maker);
+                countsByMaker.remove(maker);
+            }
+        }
+    }
+
+    /**
+     * Returns the slots of {@code maker}, or an empty set.
+     */
+    BitSet slotsOf(String maker) {
+        BitSet slots = slotsByMaker.get(maker);
+        return slots == null ? new BitSet() : slots;
+    }
+
+    BitSet slotsOf(Type type) {
+        return slotsByType[type.ordinal()];
+    }
+
+    /**
+     * Returns a copy of the per-maker counts, indexed by {@link Type#ordinal()}.
+     */
+    Map<String, int[]> typeCounts() {
+        Map<String, int[]> copy = new HashMap<>(countsByMaker.size() * 2);
+        for (Map.Entry<String, int[]> maker : countsByMaker.entrySet()) {
+            copy.put(maker.getKey(), maker.getValue().clone());
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,159 @@
+package schedule_manager;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import utils.Json;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Append-only log of schedule changes kept next to the snapshot file, one JSON record per line:
+ * {@code {"date":"2025-02-01","type":"POST","maker":"Anna"}} for an entry and {@code {"date":"2025-02-01"}} for a
+ * removal. Records hold absolute values, so replaying them over a snapshot that already contains some of them is
+ * harmless. Appends are buffered until {@link #sync()}.
+ */
+final class ScheduleJournal implements Closeable {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final FileChannel channel;
+    private final JsonGenerator generator;
+    private int records;
+
+    /**
+     * Opens the journal for appending; {@code records} is how many records it already holds.
+     */
+    ScheduleJournal(Path path, int records) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.generator = Json.MAPPER.getFactory()
+                .createGenerator(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE))
+                .setPrettyPrinter(new MinimalPrettyPrinter(""));
+        this.records = records;
+    }
+
+    static Path pathFor(Path snapshot) {
+        return snapshot.resolveSibling(snapshot.getFileName() + ".journal");
+    }
+
+    void appendPut(LocalDate date, Content content) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("date", date.toString());
+        generator.writeStringField("type", content.getType().name());
+        if (content.getMaker() != null) {
+            generator.writeStringField("maker", content.getMaker());
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+        records++;
+    }
+
+    void appendRemove(LocalDate date) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("date", date.toString());
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+        records++;
+    }
+
+    int records() {
+        return records;
+    }
+
+    /**
+     * Writes out buffered records and forces them to disk.
+     */
+    void sync() throws IOException {
+        generator.flush();
+        channel.force(false);
+    }
+
+    /**
+     * Drops every record, once they are all part of the snapshot.
+     */
+    void truncate() throws IOException {
+        generator.flush();
+        channel.truncate(0);
+        channel.force(true);
+        records = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+
+    /**
+     * Applies the journal at {@code path} to {@code store} and returns the number of records applied.
+     * A torn last record, left by a crash in the middle of an append, is cut off so later appends start on a clean line.
+     */
+    static int replay(Path path, ScheduleStore store, MakerDictionary makers) throws IOException {
+        if (!Files.exists(path)) return 0;
+
+        int applied = 0;
+        long validLength = 0;
+        try (JsonParser parser = Json.MAPPER.getFactory()
+                .createParser(new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE))) {
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                applyRecord(parser, store, makers);
+                applied++;
+                validLength = parser.currentLocation().getByteOffset();
+            }
+        } catch (JsonProcessingException e) {
+            System.err.println("Ignoring incomplete journal record in " + path + ": " + e.getOriginalMessage());
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.truncate(validLength);
+                if (validLength > 0) {
+                    channel.write(ByteBuffer.wrap(new byte[]{'\n'}), validLength);
+                }
+            }
+        }
+        return applied;
+    }
+
+    private static void applyRecord(JsonParser parser, ScheduleStore store, MakerDictionary makers) throws IOException {
+        String date = null;
+        String type = null;
+        String maker = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "date" -> date = parser.getValueAsString();
+                case "type" -> type = parser.getValueAsString();
+                case "maker" -> maker = makers.intern(parser.getValueAsString());
+                default -> parser.skipChildren();
+            }
+        }
+        if (parser.currentToken() != JsonToken.END_OBJECT || date == null) {
+            throw new IOException("Malformed journal record at " + parser.currentLocation());
+        }
+
+        int line = parser.currentLocation().getLineNr();
+        LocalDate day;
+        try {
+            day = LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            throw new IOException("Invalid journal date '" + date + "' on line " + line, e);
+        }
+        if (type == null) {
+            store.remove(day);
+            return;
+        }
+        try {
+            store.put(day, new Content(Type.valueOf(type), day, maker));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid journal type '" + type + "' on line " + line, e);
+        }
+    }
+}
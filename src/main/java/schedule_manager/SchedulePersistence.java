@@ -0,0 +1,122 @@
+package schedule_manager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.*;
+
+/**
+ * Saves a schedule in the background so the generating thread never waits for the disk.
+ * <p>
+ * {@link #save()} copies the schedule's slot array on the caller thread and hands the copy to a single writer
+ * thread. Requests that arrive while a write is queued replace its snapshot and share its future, so a burst of
+ * saves costs at most one write in progress plus one queued. Every write goes to a temporary file that is forced
+ * to disk and atomically renamed over the schedule file, so a crash leaves either the previous or the new version.
+ * <p>
+ * Only schedules backed by a single file and not in journal mode can be saved this way.
+ */
+public class SchedulePersistence implements AutoCloseable {
+
+    private final Schedule schedule;
+    private final Path path;
+    private final ExecutorService writer;
+    private final Object lock = new Object();
+    // Snapshot waiting for the writer; a new save replaces it instead of queueing another write
+    private ScheduleStore pendingSnapshot;
+    private CompletableFuture<Path> pendingFuture;
+    private long writes;
+
+    public SchedulePersistence(Schedule schedule) {
+        this.schedule = schedule;
+        this.path = schedule.path();
+        if (path == null) {
+            throw new IllegalArgumentException("Only schedules backed by a single file can be saved asynchronously");
+        }
+        this.writer = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "schedule-writer-" + path.getFileName());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Snapshots the schedule and returns a future completed with the file path once that snapshot, or a later one,
+     * is durably on disk. Must be called from the thread that modifies the schedule.
+     */
+    public CompletableFuture<Path> save() {
+        if (schedule.isJournaling()) {
+            throw new IllegalStateException("Schedules in journal mode are saved with saveToFile()");
+        }
+        ScheduleStore snapshot = schedule.store().copy();
+
+        synchronized (lock) {
+            if (writer.isShutdown()) {
+                throw new IllegalStateException("Schedule persistence is closed");
+            }
+            if (pendingFuture != null) {
+                pendingSnapshot = snapshot;
+                return pendingFuture;
+            }
+            pendingSnapshot = snapshot;
+            pendingFuture = new CompletableFuture<>();
+            CompletableFuture<Path> future = pendingFuture;
+            writer.execute(this::writePending);
+            return future;
+        }
+    }
+
+    /**
+     * Returns how many writes actually reached the disk, which is at most the number of {@link #save()} calls.
+     */
+    public long getWriteCount() {
+        synchronized (lock) {
+            return writes;
+        }
+    }
+
+    private void writePending() {
+        ScheduleStore snapshot;
+        CompletableFuture<Path> future;
+        synchronized (lock) {
+            snapshot = pendingSnapshot;
+            future = pendingFuture;
+            pendingSnapshot = null;
+            pendingFuture = null;
+        }
+
+        try {
+            if (BinaryScheduleFormat.isBinary(path)) {
+                BinaryScheduleFormat.writeAtomically(snapshot, path);
+            } else {
+                ScheduleCodec.writeAtomically(snapshot, path);
+            }
+            schedule.markSeen();
+            // As with a synchronous save, the snapshot supersedes any journal left from an earlier run
+            Files.deleteIfExists(schedule.journalPath());
+            synchronized (lock) {
+                writes++;
+            }
+            future.complete(path);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error writing schedule to " + path + ": " + e.getMessage());
+            future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Waits for queued saves to finish and stops the writer thread.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            writer.shutdown();
+        }
+        try {
+            if (!writer.awaitTermination(1, TimeUnit.MINUTES)) {
+                System.err.println("Timed out waiting for schedule writes to " + path);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package schedule_manager;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+
+/**
+ * Date-ordered schedule storage backed by a dense array indexed by epoch day.
+ * Single-day lookups are an offset computation, and month and range reads are sequential array scans with no
+ * hashing. It is a {@link Map} so it can stand in wherever the schedule used to be a {@code HashMap}; iteration
+ * is in date order.
+ * <p>
+ * The first by-maker or by-type query builds a {@link ScheduleIndex}, which every later change keeps up to date, so
+ * those queries cost time proportional to their result. Stored contents must not be changed in place.
+ */
+public class ScheduleStore extends AbstractMap<LocalDate, Content> {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private Content[] slots = new Content[0];
+    // Epoch day of slots[0]
+    private long base;
+    private int size;
+    private int modCount;
+    // Built on the first indexed query; dropped when slots shift
+    private ScheduleIndex indexes;
+
+    public ScheduleStore() {
+    }
+
+    public ScheduleStore(Map<LocalDate, Content> entries) {
+        putAll(entries);
+    }
+
+    /**
+     * Returns an independent copy of this store. The slot array is cloned in one go; contents are shared.
+     */
+    public ScheduleStore copy() {
+        ScheduleStore copy = new ScheduleStore();
+        copy.slots = slots.clone();
+        copy.base = base;
+        copy.size = size;
+        return copy;
+    }
+
+    @Override
+    public Content get(Object key) {
+        if (!(key instanceof LocalDate date)) return null;
+        long index = date.toEpochDay() - base;
+        return index >= 0 && index < slots.length ? slots[(int) index] : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Stores {@code content} on {@code date}. Null contents are not stored; use {@link #remove(Object)} instead.
+     */
+    @Override
+    public Content put(LocalDate date, Content content) {
+        Objects.requireNonNull(date, "date");
+        Objects.requireNonNull(content, "content");
+        int index = ensureSlot(date.toEpochDay());
+        Content previous = slots[index];
+        slots[index] = content;
+        if (previous == null) {
+            size++;
+            modCount++;
+        }
+        reindex(index, previous, content);
+        return previous;
+    }
+
+    @Override
+    public Content remove(Object key) {
+        if (!(key instanceof LocalDate date)) return null;
+        long index = date.toEpochDay() - base;
+        if (index < 0 || index >= slots.length || slots[(int) index] == null) return null;
+        Content previous = slots[(int) index];
+        slots[(int) index] = null;
+        size--;
+        modCount++;
+        reindex((int) index, previous, null);
+        return previous;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        slots = new Content[0];
+        size = 0;
+        modCount++;
+        indexes = null;
+    }
+
+    /**
+     * Returns the earliest scheduled date, or null if the store is empty.
+     */
+    public LocalDate firstDate() {
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] != null) return LocalDate.ofEpochDay(base + i);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the latest scheduled date, or null if the store is empty.
+     */
+    public LocalDate lastDate() {
+        for (int i = slots.length - 1; i >= 0; i--) {
+            if (slots[i] != null) return LocalDate.ofEpochDay(base + i);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the entries from {@code from} to {@code to}, both inclusive, in date order.
+     */
+    public List<Content> entriesBetween(LocalDate from, LocalDate to) {
+        List<Content> entries = new ArrayList<>();
+        int start = (int) Math.max(0, from.toEpochDay() - base);
+        long end = Math.min(slots.length - 1L, to.toEpochDay() - base);
+        for (int i = start; i <= end; i++) {
+            if (slots[i] != null) entries.add(slots[i]);
+        }
+        return entries;
+    }
+
+    /**
+     * Returns one element per day of the month, null for days without content.
+     */
+    public Content[] month(YearMonth yearMonth) {
+        Content[] days = new Content[yearMonth.lengthOfMonth()];
+        long offset = yearMonth.atDay(1).toEpochDay() - base;
+        int srcStart = (int) Math.max(0, Math.min(offset, slots.length));
+        int srcEnd = (int) Math.max(0, Math.min(offset + days.length, slots.length));
+        if (srcEnd > srcStart) {
+            System.arraycopy(slots, srcStart, days, (int) (srcStart - offset), srcEnd - srcStart);
+        }
+        return days;
+    }
+
+    /**
+     * Returns the entries of {@code maker} from {@code from} to {@code to}, both inclusive, in date order.
+     */
+    public List<Content> entriesOf(String maker, LocalDate from, LocalDate to) {
+        return collect(indexes().slotsOf(maker), null, from, to);
+    }
+
+    /**
+     * Returns the entries of {@code type} from {@code from} to {@code to}, both inclusive, in date order.
+     */
+    public List<Content> entriesOf(Type type, LocalDate from, LocalDate to) {
+        return collect(indexes().slotsOf(type), null, from, to);
+    }
+
+    /**
+     * Returns the entries of {@code type} made by {@code maker} from {@code from} to {@code to}, both inclusive.
+     */
+    public List<Content> entriesOf(String maker, Type type, LocalDate from, LocalDate to) {
+        return collect(indexes().slotsOf(maker), type, from, to);
+    }
+
+    /**
+     * Returns the first entry of {@code type} by {@code maker} on or after {@code from}, or null if there is none.
+     */
+    public Content nextEntry(String maker, Type type, LocalDate from) {
+        BitSet makerSlots = indexes().slotsOf(maker);
+        for (int i = makerSlots.nextSetBit(firstSlot(from)); i >= 0; i = makerSlots.nextSetBit(i + 1)) {
+            if (slots[i].getType() == type) return slots[i];
+        }
+        return null;
+    }
+
+    /**
+     * Returns, per maker, how many entries of each type they have, indexed by {@link Type#ordinal()}.
+     */
+    public Map<String, int[]> typeCounts() {
+        return indexes().typeCounts();
+    }
+
+    private List<Content> collect(BitSet indexed, Type type, LocalDate from, LocalDate to) {
+        List<Content> entries = new ArrayList<>();
+        long end = Math.min(slots.length - 1L, to.toEpochDay() - base);
+        for (int i = indexed.nextSetBit(firstSlot(from)); i >= 0 && i <= end; i = indexed.nextSetBit(i + 1)) {
+            if (type == null || slots[i].getType() == type) {
+                entries.add(slots[i]);
+            }
+        }
+        return entries;
+    }
+
+    private int firstSlot(LocalDate from) {
+        return (int) Math.max(0, Math.min(slots.length, from.toEpochDay() - base));
+    }
+
+    private ScheduleIndex indexes() {
+        if (indexes == null) {
+            indexes = new ScheduleIndex();
+            for (int i = 0; i < slots.length; i++) {
+                if (slots[i] != null) indexes.add(i, slots[i]);
+            }
+        }
+        return indexes;
+    }
+
+    private void reindex(int slot, Content previous, Content content) {
+        if (indexes == null) return;
+        if (previous != null) indexes.remove(slot, previous);
+        if (content != null) indexes.add(slot, content);
+    }
+
+    /**
+     * Same as {@link #month(YearMonth)} for any map, using the dense array when it is a store.
+     */
+    public static Content[] month(Map<LocalDate, Content> schedule, YearMonth yearMonth) {
+        if (schedule instanceof ScheduleStore store) {
+            return store.month(yearMonth);
+        }
+        Content[] days = new Content[yearMonth.lengthOfMonth()];
+        for (int day = 1; day <= days.length; day++) {
+            days[day - 1] = schedule.get(yearMonth.atDay(day));
+        }
+        return days;
+    }
+
+    private int ensureSlot(long epochDay) {
+        if (slots.length == 0) {
+            slots = new Content[INITIAL_CAPACITY];
+            base = epochDay - INITIAL_CAPACITY / 2;
+        }
+
+        long index = epochDay - base;
+        if (index < 0) {
+            // Grow towards the past, keeping some headroom before the new first day
+            long headroom = Math.max(-index, slots.length / 2);
+            Content[] grown = new Content[checkedLength(slots.length + headroom)];
+            System.arraycopy(slots, 0, grown, (int) headroom, slots.length);
+            slots = grown;
+            base -= headroom;
+            // Indexed slot numbers are relative to the old base
+            indexes = null;
+            index = epochDay - base;
+        } else if (index >= slots.length) {
+            long needed = index + 1;
+            slots = Arrays.copyOf(slots, checkedLength(Math.max(needed, slots.length + slots.length / 2)));
+        }
+        return (int) index;
+    }
+
+    private static int checkedLength(long length) {
+        if (length > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Schedule spans too many days: " + length);
+        }
+        return (int) length;
+    }
+
+    /**
+     * Iterates the contents in date order straight from the array, without creating entries.
+     */
+    @Override
+    public Collection<Content> values() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<Content> iterator() {
+                EntryIterator entries = new EntryIterator();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return entries.hasNext();
+                    }
+
+                    @Override
+                    public Content next() {
+                        return entries.nextValue();
+                    }
+
+                    @Override
+                    public void remove() {
+                        entries.remove();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Set<Entry<LocalDate, Content>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<LocalDate, Content>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private final class EntryIterator implements Iterator<Entry<LocalDate, Content>> {
+        private int next = advance(0);
+        private int last = -1;
+        private int expectedModCount = modCount;
+
+        private int advance(int from) {
+            int i = from;
+            while (i < slots.length && slots[i] == null) i++;
+            return i;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < slots.length;
+        }
+
+        Content nextValue() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            if (!hasNext()) throw new NoSuchElementException();
+            last = next;
+            next = advance(next + 1);
+            return slots[last];
+        }
+
+        @Override
+        public Entry<LocalDate, Content> next() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            if (!hasNext()) throw new NoSuchElementException();
+            int index = next;
+            last = index;
+            next = advance(index + 1);
+            return new SimpleEntry<>(LocalDate.ofEpochDay(base + index), slots[index]) {
+                @Override
+                public Content setValue(Content value) {
+                    Objects.requireNonNull(value, "content");
+                    reindex(index, slots[index], value);
+                    slots[index] = value;
+                    return super.setValue(value);
+                }
+            };
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) throw new IllegalStateException();
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            reindex(last, slots[last], null);
+            slots[last] = null;
+            size--;
+            modCount++;
+            expectedModCount = modCount;
+            last = -1;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package schedule_manager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Stateless weekly template rotation. The template at {@code anchorIndex} is in effect on the
+ * anchor date, and the rotation moves to the next template every Monday, in either direction.
+ * The template for any date is therefore an O(1) computation and months can be generated
+ * in any order.
+ * <p>
+ * A rotation can also take over from an earlier one on a given date, see {@link #startingFrom}; dates before that
+ * keep the earlier rotation's templates.
+ */
+public final class TemplateRotation {
+
+    private final List<WeeklyTemplate> templates;
+    private final LocalDate anchor;
+    private final int anchorIndex;
+    // Rotation in effect before switchDate, or null if this one covers every date
+    private final TemplateRotation previous;
+    private final LocalDate switchDate;
+
+    public TemplateRotation(List<WeeklyTemplate> templates, LocalDate anchor, int anchorIndex) {
+        this(templates, anchor, anchorIndex, null, null);
+    }
+
+    private TemplateRotation(List<WeeklyTemplate> templates, LocalDate anchor, int anchorIndex, TemplateRotation previous, LocalDate switchDate) {
+        if (templates.isEmpty()) {
+            throw new IllegalArgumentException("At least one weekly template is required");
+        }
+        if (anchorIndex < 0 || anchorIndex >= templates.size()) {
+            throw new IllegalArgumentException("Anchor index " + anchorIndex + " is out of range for "
+                    + templates.size() + " weekly templates");
+        }
+        this.templates = List.copyOf(templates);
+        this.anchor = anchor;
+        this.anchorIndex = anchorIndex;
+        this.previous = previous;
+        this.switchDate = switchDate;
+    }
+
+    /**
+     * Returns a rotation that follows {@code previous} before {@code from} and this rotation from {@code from} on.
+     */
+    public TemplateRotation startingFrom(LocalDate from, TemplateRotation previous) {
+        return new TemplateRotation(templates, anchor, anchorIndex, previous, from);
+    }
+
+    /**
+     * Returns the index of the template in effect on the given date, in the templates of the rotation in effect
+     * on that date.
+     */
+    public int indexFor(LocalDate date) {
+        if (previous != null && date.isBefore(switchDate)) {
+            return previous.indexFor(date);
+        }
+        long weeks = weekNumber(date) - weekNumber(anchor);
+        return (int) Math.floorMod(anchorIndex + weeks, (long) templates.size());
+    }
+
+    public WeeklyTemplate templateFor(LocalDate date) {
+        if (previous != null && date.isBefore(switchDate)) {
+            return previous.templateFor(date);
+        }
+        return templates.get(indexFor(date));
+    }
+
+    /**
+     * Returns a rotation with the same templates where {@code index} is in effect on {@code date}. Dates before an
+     * earlier switch keep the earlier rotation.
+     */
+    public TemplateRotation withAnchor(LocalDate date, int index) {
+        return new TemplateRotation(templates, date, index, previous, switchDate);
+    }
+
+    public List<WeeklyTemplate> getTemplates() {
+        return templates;
+    }
+
+    public LocalDate getAnchor() {
+        return anchor;
+    }
+
+    public int getAnchorIndex() {
+        return anchorIndex;
+    }
+
+    /**
+     * Number of Monday-started weeks since the epoch; 1970-01-01 was a Thursday.
+     */
+    private static long weekNumber(LocalDate date) {
+        return Math.floorDiv(date.toEpochDay() + 3, 7);
+    }
+}
@@ -1,3 +1,18 @@
 package schedule_manager;
 
-public enum Type { STORIA, POST, LOCANDINA, REEL, RIASSUNTO, TESTIMONIANZA };
\ No newline at end of file
+public enum Type {
+    STORIA(1), POST(2), LOCANDINA(2), REEL(3), RIASSUNTO(3), TESTIMONIANZA(2);
+
+    private final int weight;
+
+    Type(int weight) {
+        this.weight = weight;
+    }
+
+    /**
+     * Relative effort of one item of this type, used to balance workloads.
+     */
+    public int getWeight() {
+        return weight;
+    }
+}
@@ -0,0 +1,112 @@
+package schedule_manager;
+
+import java.time.DayOfWeek;
+import java.util.*;
+
+/**
+ * Immutable, pre-parsed form of a weekly schedule string such as
+ * {@code "POST Monday, RIASSUNTO Tuesday, STORIA Wednesday"}.
+ * Days not mentioned in the template have no content.
+ */
+public final class WeeklyTemplate {
+
+    private final String source;
+    private final Map<DayOfWeek, Type> types;
+
+    private WeeklyTemplate(String source, Map<DayOfWeek, Type> types) {
+        this.source = source;
+        this.types = Collections.unmodifiableMap(types);
+    }
+
+    /**
+     * Parses and validates a weekly schedule string.
+     *
+     * @throws IllegalArgumentException if an entry is malformed, names an unknown type or day,
+     *                                  or assigns the same day twice
+     */
+    public static WeeklyTemplate compile(String weeklyProgram) {
+        if (weeklyProgram == null || weeklyProgram.isBlank()) {
+            throw new IllegalArgumentException("Weekly schedule must not be empty");
+        }
+
+        EnumMap<DayOfWeek, Type> types = new EnumMap<>(DayOfWeek.class);
+        for (String rawEntry : weeklyProgram.split(",")) {
+            String entry = rawEntry.trim();
+            String[] parts = entry.split("\\s+");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException(String.format(
+                        "Invalid entry '%s' in weekly schedule '%s': expected '<TYPE> <Day>'", entry, weeklyProgram));
+            }
+
+            Type type;
+            try {
+                type = Type.valueOf(parts[0].toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(String.format(
+                        "Unknown content type '%s' in weekly schedule '%s', expected one of %s",
+                        parts[0], weeklyProgram, Arrays.toString(Type.values())));
+            }
+
+            DayOfWeek dayOfWeek;
+            try {
+                dayOfWeek = DayOfWeek.valueOf(parts[1].toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(String.format(
+                        "Unknown day '%s' in weekly schedule '%s'", parts[1], weeklyProgram));
+            }
+
+            if (types.put(dayOfWeek, type) != null) {
+                throw new IllegalArgumentException(String.format(
+                        "Day '%s' appears more than once in weekly schedule '%s'", parts[1], weeklyProgram));
+            }
+        }
+
+        return new WeeklyTemplate(weeklyProgram, types);
+    }
+
+    /**
+     * Compiles every weekly schedule string, in order.
+     */
+    public static List<WeeklyTemplate> compileAll(List<String> weeklyPrograms) {
+        if (weeklyPrograms == null || weeklyPrograms.isEmpty()) {
+            throw new IllegalArgumentException("At least one weekly schedule is required");
+        }
+        List<WeeklyTemplate> templates = new ArrayList<>(weeklyPrograms.size());
+        for (String weeklyProgram : weeklyPrograms) {
+            templates.add(compile(weeklyProgram));
+        }
+        return Collections.unmodifiableList(templates);
+    }
+
+    /**
+     * Returns the content type scheduled on the given day, or null if the day is free.
+     */
+    public Type typeFor(DayOfWeek dayOfWeek) {
+        return types.get(dayOfWeek);
+    }
+
+    public Map<DayOfWeek, Type> getTypes() {
+        return types;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof WeeklyTemplate that)) return false;
+        return types.equals(that.types);
+    }
+
+    @Override
+    public int hashCode() {
+        return types.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "WeeklyTemplate{" + types + '}';
+    }
+}
@@ -0,0 +1,105 @@
+package utils;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Watches individual files with a {@link WatchService} and calls back once a file has been quiet for a while, so an
+ * editor's save, or a write followed by an atomic rename, results in one notification instead of several.
+ * Callbacks run one at a time on a single background thread.
+ */
+public class FileWatcher implements AutoCloseable {
+
+    private final WatchService watchService;
+    private final long quietMillis;
+    private final Map<Path, Consumer<Path>> listeners = new ConcurrentHashMap<>();
+    private final Map<WatchKey, Path> directories = new ConcurrentHashMap<>();
+    private final Map<Path, ScheduledFuture<?>> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService debouncer;
+    private final Thread watchThread;
+
+    public FileWatcher(Duration quietPeriod) throws IOException {
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.quietMillis = quietPeriod.toMillis();
+        this.debouncer = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "file-watcher-callbacks");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.watchThread = new Thread(this::watchLoop, "file-watcher");
+        this.watchThread.setDaemon(true);
+        this.watchThread.start();
+    }
+
+    /**
+     * Calls {@code listener} with the file's path after it is created or modified. One listener per file.
+     */
+    public void watch(Path file, Consumer<Path> listener) throws IOException {
+        Path absolute = file.toAbsolutePath().normalize();
+        Path directory = absolute.getParent();
+        if (!directories.containsValue(directory)) {
+            directories.put(directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY), directory);
+        }
+        listeners.put(absolute, listener);
+    }
+
+    private void watchLoop() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Path directory = directories.get(key);
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (directory == null) continue;
+                    if (event.kind() == OVERFLOW) {
+                        // Events were lost, so every file in the directory may have changed
+                        listeners.keySet().stream().filter(file -> file.getParent().equals(directory)).forEach(this::debounce);
+                    } else {
+                        Path file = directory.resolve((Path) event.context());
+                        if (listeners.containsKey(file)) {
+                            debounce(file);
+                        }
+                    }
+                }
+                if (!key.reset()) {
+                    directories.remove(key);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Closed
+        }
+    }
+
+    private void debounce(Path file) {
+        pending.compute(file, (path, previous) -> {
+            if (previous != null) {
+                previous.cancel(false);
+            }
+            return debouncer.schedule(() -> notifyListener(path), quietMillis, TimeUnit.MILLISECONDS);
+        });
+    }
+
+    private void notifyListener(Path file) {
+        pending.remove(file);
+        Consumer<Path> listener = listeners.get(file);
+        if (listener == null) return;
+        try {
+            listener.accept(file);
+        } catch (RuntimeException e) {
+            System.err.println("Error handling change of " + file + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+        debouncer.shutdownNow();
+        watchThread.interrupt();
+    }
+}
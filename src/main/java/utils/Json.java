@@ -0,0 +1,22 @@
+package utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * The single, pre-configured Jackson mapper shared by every codec.
+ * It is fully configured here and never changed afterwards, so it and the readers and writers derived from it
+ * are thread-safe.
+ */
+public final class Json {
+
+    public static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            // Codecs write many values into one buffered generator; flushing after each would defeat the buffer
+            .disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+    private Json() {
+    }
+}
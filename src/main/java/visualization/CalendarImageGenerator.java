@@ -1,35 +1,39 @@
 package visualization;
 
+import config.CompiledConfig;
 import config.Config;
 import schedule_manager.Content;
 import schedule_manager.Schedule;
+import schedule_manager.ScheduleStore;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.time.DayOfWeek;
+import java.io.OutputStream;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.Month;
 import java.time.YearMonth;
 import java.util.*;
 import java.util.List;
+import java.util.zip.Deflater;
 import javax.imageio.ImageIO;
 
-public class CalendarImageGenerator {
+/**
+ * Raster {@link CalendarRenderer}: draws calendars with AWT and encodes them as PNG.
+ */
+public class CalendarImageGenerator implements CalendarRenderer {
 
-    final Config config;
+    /**
+     * Part of every render hash: bump it whenever a change to the drawing or encoding code changes the images, so
+     * months rendered by the previous version are not skipped.
+     */
+    static final int RENDERER_VERSION = 1;
 
-    // Define constants for layout and styling
-    private final int CELL_SIZE = 140;
-    private final int TITLE_HEIGHT = 80;
-    private final int HEADER_HEIGHT = 50;
-    private final int CONTAINER_HEIGHT = TITLE_HEIGHT + HEADER_HEIGHT;
-    private final int NUM_COLUMNS = 7; // 7 days of the week
-    private final int NUM_ROWS = 6; // Maximum 6 rows for a month
-    private final int CALENDAR_WIDTH = CELL_SIZE * NUM_COLUMNS;
-    private final int CALENDAR_HEIGHT = (CELL_SIZE * NUM_ROWS) + CONTAINER_HEIGHT;
-    private final int CONTENT_Y_OFFSET = 40;
+    final Config config;
 
     private String DEFAULT_FONT_NAME;
     private Font TITLE_FONT;
@@ -37,64 +41,167 @@ public class CalendarImageGenerator {
     private Font DATE_FONT;
     private Font CONTENT_FONT;
 
-    private final Map<String, Color> makerColors = new HashMap<>();
+    // Colors, first weekday and font, parsed once
+    private CompiledConfig compiled;
+    private CalendarLayout layout;
+    // Background, header, text widths and palette, rebuilt whenever fonts or config change
+    private CalendarRenderCache renderCache;
+
+    private boolean indexedPng = false;
+    private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+    // Encoders reuse their buffers, so each encoding thread gets its own
+    private final ThreadLocal<PngEncoder> encoders = ThreadLocal.withInitial(() -> new PngEncoder(Deflater.DEFAULT_COMPRESSION));
+    private RenderManifest renderManifest;
 
-    // Constructor initializes colors for makers
     public CalendarImageGenerator(Config config) {
         this.config = config;
-        Map<String, String> formatting = config.getFormatting();
-        setFormatting(formatting);
-        initializeMakerColors();
+        this.compiled = config.compiled();
+        this.layout = new CalendarLayout(compiled.firstWeekday());
+        setFormatting(compiled.fontName());
     }
 
-    void setFormatting(Map<String, String> formatting) {
-        this.DEFAULT_FONT_NAME = formatting.get("font");
+    void setFormatting(String fontName) {
+        this.DEFAULT_FONT_NAME = fontName;
         this.TITLE_FONT = new Font(DEFAULT_FONT_NAME, Font.BOLD, 40);
         this.HEADER_FONT = new Font(DEFAULT_FONT_NAME, Font.BOLD, 26);
         this.DATE_FONT = new Font(DEFAULT_FONT_NAME, Font.BOLD, 16);
         this.CONTENT_FONT = new Font(DEFAULT_FONT_NAME, Font.BOLD, 23);
+        this.renderCache = buildRenderCache();
+    }
+
+    /**
+     * Draws the parts of the calendar that do not depend on the month and measures the text every month repeats.
+     */
+    private CalendarRenderCache buildRenderCache() {
+        BufferedImage layer = createBlankImage();
+        Graphics2D g2d = layer.createGraphics();
+        try {
+            configureGraphics(g2d);
+            drawBackground(g2d);
+            drawDaysOfWeekHeader(g2d);
+            List<Color> fills = new ArrayList<>(List.of(Color.WHITE, Color.LIGHT_GRAY));
+            for (int id = 0; id < compiled.people().size(); id++) {
+                fills.add(compiled.colorOf(id));
+            }
+            return new CalendarRenderCache(layer, g2d.getFontMetrics(DATE_FONT), g2d.getFontMetrics(CONTENT_FONT),
+                    compiled.people(), PngEncoder.rampPalette(fills));
+        } finally {
+            g2d.dispose();
+        }
+    }
+
+    /**
+     * Re-reads fonts and colors after the config changed, e.g. from a {@code HotReloader} config listener.
+     */
+    @Override
+    public void reloadConfig() {
+        this.compiled = config.compiled();
+        this.layout = new CalendarLayout(compiled.firstWeekday());
+        setFormatting(compiled.fontName());
     }
 
     /**
-     * Initializes the maker colors by mapping each person to a specific color.
+     * Writes 8-bit indexed PNGs with a palette of the config's colors instead of true-color ARGB ones: much smaller
+     * files, encoded faster, with antialiased text snapped to the nearest palette shade.
      */
-    private void initializeMakerColors() {
-        List<Map<String, String>> peopleColors = config.getPeopleColors();
+    public void setIndexedPng(boolean indexedPng) {
+        this.indexedPng = indexedPng;
+    }
 
-        for (int i = 0; i < peopleColors.size(); i++) {
-            Map<String, String> entry = peopleColors.get(i);
-            makerColors.put(entry.get("name"), Color.decode("#" + entry.get("color")));
+    /**
+     * Sets the {@link Deflater} level of indexed PNGs, from 0 to 9, or {@link Deflater#DEFAULT_COMPRESSION}.
+     */
+    public void setPngCompressionLevel(int compressionLevel) {
+        if (compressionLevel != Deflater.DEFAULT_COMPRESSION && (compressionLevel < 0 || compressionLevel > 9)) {
+            throw new IllegalArgumentException("Compression level must be between 0 and 9, or -1 for the default");
         }
+        this.compressionLevel = compressionLevel;
+    }
+
+    /**
+     * Makes {@link #generateCalendarImage} skip months whose output file was rendered, according to
+     * {@code renderManifest}, from the same entries, config and renderer version. Null renders every month.
+     * See {@link CalendarRenderPipeline#setRenderManifest} for the pipeline.
+     */
+    public void setRenderManifest(RenderManifest renderManifest) {
+        this.renderManifest = renderManifest;
     }
 
     /**
      * Generates the calendar image for the given month and year.
      */
     public void generateCalendarImage(Map<LocalDate, Content> schedule, int year, Month month, String outputFilePath) throws IOException {
-        BufferedImage image = createBlankImage();
-        Graphics2D g2d = image.createGraphics();
-
-        // Set up rendering hints for better quality
-        configureGraphics(g2d);
+        YearMonth yearMonth = YearMonth.of(year, month);
+        Content[] days = ScheduleStore.month(schedule, yearMonth);
+        String hash = null;
+        if (renderManifest != null) {
+            hash = renderHash(yearMonth, days);
+            if (renderManifest.isCurrent(yearMonth, hash, Path.of(outputFilePath))) {
+                System.out.println("Calendar image unchanged: " + outputFilePath);
+                return;
+            }
+        }
 
-        // Draw the calendar components
-        drawBackground(g2d);
-        drawTitle(g2d, year, month);
-        drawDaysOfWeekHeader(g2d);
-        drawCalendarDays(g2d, schedule, year, month);
+        BufferedImage image = createBlankImage();
+        drawMonth(image, yearMonth, days);
 
         // Save the generated image
         saveImage(image, outputFilePath);
+        if (renderManifest != null) {
+            renderManifest.record(yearMonth, hash, Path.of(outputFilePath));
+        }
 
-        g2d.dispose();
         System.out.println("Calendar image saved to: " + outputFilePath);
     }
 
+    @Override
+    public String extension() {
+        return "png";
+    }
+
+    @Override
+    public void render(YearMonth yearMonth, Content[] days, OutputStream out) throws IOException {
+        BufferedImage image = createBlankImage();
+        drawMonth(image, yearMonth, days);
+        encode(image, out);
+    }
+
+    /**
+     * Covers the output format, including indexed output and its compression level, besides what every renderer's
+     * hash covers.
+     */
+    @Override
+    public String renderHash(YearMonth yearMonth, Content[] days) {
+        // The level only changes indexed output
+        return RenderHash.of(extension(), RENDERER_VERSION, compiled, yearMonth, days, indexedPng ? 1 : 0, indexedPng ? compressionLevel : 0);
+    }
+
+    /**
+     * Draws a whole month into {@code image}, overwriting every pixel, so images can be reused.
+     * Only reads this generator's fonts and colors: several threads may draw at once, each into its own image.
+     *
+     * @param days the month's entries by day of month, as returned by {@link ScheduleStore#month}
+     */
+    void drawMonth(BufferedImage image, YearMonth yearMonth, Content[] days) {
+        Graphics2D g2d = image.createGraphics();
+        try {
+            // Set up rendering hints for better quality
+            configureGraphics(g2d);
+
+            // Draw the calendar components; the background and the header come from the cache
+            renderCache.paintStaticLayer(image);
+            drawTitle(g2d, yearMonth);
+            drawCalendarDays(g2d, days, yearMonth);
+        } finally {
+            g2d.dispose();
+        }
+    }
+
     /**
      * Creates a blank image to draw the calendar.
      */
-    private BufferedImage createBlankImage() {
-        return new BufferedImage(CALENDAR_WIDTH, CALENDAR_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+    BufferedImage createBlankImage() {
+        return new BufferedImage(CalendarLayout.WIDTH, CalendarLayout.HEIGHT, BufferedImage.TYPE_INT_ARGB);
     }
 
     /**
@@ -110,75 +217,55 @@ public class CalendarImageGenerator {
      */
     private void drawBackground(Graphics2D g2d) {
         g2d.setColor(Color.WHITE);
-        g2d.fillRect(0, 0, CALENDAR_WIDTH, CALENDAR_HEIGHT);
+        g2d.fillRect(0, 0, CalendarLayout.WIDTH, CalendarLayout.HEIGHT);
     }
 
     /**
-     * Draws the days of the week header (Sun, Mon, Tue, ...) at the top of the calendar.
+     * Draws the month and year at the top of the calendar.
      */
-    private void drawTitle(Graphics2D g2d, int year, Month month) {
+    private void drawTitle(Graphics2D g2d, YearMonth yearMonth) {
         g2d.setFont(TITLE_FONT);
         g2d.setColor(Color.BLACK);
-        String[] months = Arrays.asList("Gennaio", "Febbraio", "Marzo", "Aprile", "Maggio", "Giugno", "Luglio", "Agosto", "Settembre", "Ottobre", "Novembre", "Dicembre").toArray(new String[0]);
 
-        String title = String.format("Calendario RCY %s %d", months[month.getValue() - 1], year);
+        String title = layout.title(yearMonth);
         FontMetrics titleMetrics = g2d.getFontMetrics();
-        int x = (CALENDAR_WIDTH - titleMetrics.stringWidth(title)) / 2;
-        g2d.drawString(title, x, TITLE_HEIGHT / 3 * 2);
+        int x = (CalendarLayout.WIDTH - titleMetrics.stringWidth(title)) / 2;
+        g2d.drawString(title, x, layout.titleBaseline());
     }
 
     /**
-     * Draws the days of the week header (Sun, Mon, Tue, ...) at the top of the calendar.
+     * Draws the days of the week header, starting at the configured first day, at the top of the calendar.
      */
     private void drawDaysOfWeekHeader(Graphics2D g2d) {
-        String[] daysOfWeek = {"Lunedì", "Martedì", "Mercoledì", "Giovedì", "Venerdì", "Sabato", "Domenica"};
-
-        // Get the configured first day of the week
-        DayOfWeek configuredFirstDay = DayOfWeek.valueOf(config.getFirstWeekday().toUpperCase());
-
-        // Shift the days of week array
-        String[] shiftedDaysOfWeek = new String[7];
-        for (int i = 0; i < 7; i++) {
-            int shiftedIndex = (i + configuredFirstDay.getValue() - 1) % 7;
-            shiftedDaysOfWeek[i] = daysOfWeek[shiftedIndex];
-        }
-
         g2d.setFont(HEADER_FONT);
         g2d.setColor(Color.BLACK);
 
         FontMetrics headerMetrics = g2d.getFontMetrics();
-        for (int i = 0; i < NUM_COLUMNS; i++) {
-            int x = i * CELL_SIZE + (CELL_SIZE - headerMetrics.stringWidth(shiftedDaysOfWeek[i])) / 2;
-            g2d.drawString(shiftedDaysOfWeek[i], x, TITLE_HEIGHT + HEADER_HEIGHT / 3 * 2);
+        for (int i = 0; i < CalendarLayout.NUM_COLUMNS; i++) {
+            String label = layout.headerLabel(i);
+            g2d.drawString(label, layout.centeredX(i, headerMetrics.stringWidth(label)), layout.headerBaseline());
         }
     }
 
     /**
      * Draws the days of the month in their respective calendar cells.
      */
-    private void drawCalendarDays(Graphics2D g2d, Map<LocalDate, Content> schedule, int year, Month month) {
+    private void drawCalendarDays(Graphics2D g2d, Content[] days, YearMonth yearMonth) {
         FontMetrics dateMetrics = g2d.getFontMetrics(DATE_FONT);
         FontMetrics contentMetrics = g2d.getFontMetrics(CONTENT_FONT);
 
-        LocalDate firstDayOfMonth = LocalDate.of(year, month, 1);
-        int lengthOfMonth = month.length(firstDayOfMonth.isLeapYear());
-
-        // Get the configured first day of the week
-        DayOfWeek configuredFirstDay = DayOfWeek.valueOf(config.getFirstWeekday().toUpperCase());
-
         // Calculate the offset to align the calendar with the configured first day
-        int offset = 7 - (configuredFirstDay.getValue() - firstDayOfMonth.getDayOfWeek().getValue() + 7) % 7;
+        int offset = layout.offset(yearMonth);
 
-        for (int day = 1; day <= lengthOfMonth; day++) {
-            int x = (day - 1 + offset) % NUM_COLUMNS;
-            int y = (day - 1 + offset) / NUM_COLUMNS;
+        for (int day = 1; day <= yearMonth.lengthOfMonth(); day++) {
+            int x = layout.column(offset, day);
+            int y = layout.row(offset, day);
 
             // Draw each calendar day with a border
-            LocalDate currentDate = LocalDate.of(year, month, day);
-            Content content = schedule.get(currentDate);
+            Content content = days[day - 1];
 
             if (content != null) {
-                drawDayCell(g2d, x, y, day, dateMetrics, makerColors.get(content.getMaker()));
+                drawDayCell(g2d, x, y, day, dateMetrics, compiled.colorOf(content.getMaker()));
                 drawContent(g2d, x, y, content, dateMetrics, contentMetrics);
             } else {
                 drawDayCell(g2d, x, y, day, dateMetrics, Color.LIGHT_GRAY);
@@ -192,13 +279,13 @@ public class CalendarImageGenerator {
     private void drawDayCell(Graphics2D g2d, int x, int y, int day, FontMetrics dateMetrics, Color backgroundColor) {
         g2d.setColor(backgroundColor);
         g2d.setFont(HEADER_FONT);
-        g2d.fillRect(x * CELL_SIZE, y * CELL_SIZE + CONTAINER_HEIGHT, CELL_SIZE, CELL_SIZE);
+        g2d.fillRect(layout.cellX(x), layout.cellY(y), CalendarLayout.CELL_SIZE, CalendarLayout.CELL_SIZE);
         g2d.setColor(Color.BLACK);
-        g2d.drawRect(x * CELL_SIZE, y * CELL_SIZE + CONTAINER_HEIGHT, CELL_SIZE, CELL_SIZE);
+        g2d.drawRect(layout.cellX(x), layout.cellY(y), CalendarLayout.CELL_SIZE, CalendarLayout.CELL_SIZE);
 
-        String dayString = String.valueOf(day);
-        int dayX = x * CELL_SIZE + (CELL_SIZE - dateMetrics.stringWidth(dayString)) / 2;
-        g2d.drawString(dayString, dayX, y * CELL_SIZE + CONTAINER_HEIGHT + CONTENT_Y_OFFSET);
+        // The number is drawn in the header font but centered by its width in the date font
+        String dayString = renderCache.dayLabel(day);
+        g2d.drawString(dayString, layout.centeredX(x, renderCache.dayWidth(day)), layout.dayBaseline(y));
     }
 
     /**
@@ -207,20 +294,18 @@ public class CalendarImageGenerator {
     private void drawContent(Graphics2D g2d, int x, int y, Content content, FontMetrics dateMetrics, FontMetrics contentMetrics) {
         String maker = content.getMaker();
         g2d.setFont(DATE_FONT);
-        Color makerColor = makerColors.get(maker);
+        Color makerColor = compiled.colorOf(maker);
 
         // Set the background color to the maker's color and fill the area
         g2d.setColor(makerColor);
 
         g2d.setColor(Color.BLACK);
         String contentType = content.getType().name();
-        int contentX = x * CELL_SIZE + (CELL_SIZE - dateMetrics.stringWidth(contentType)) / 2;
-        g2d.drawString(contentType, contentX, y * CELL_SIZE + CONTAINER_HEIGHT + CONTENT_Y_OFFSET * 2);
+        g2d.drawString(contentType, layout.centeredX(x, renderCache.typeWidth(content.getType())), layout.typeBaseline(y));
 
         g2d.setFont(CONTENT_FONT);
         String contentMaker = content.getMaker();
-        contentX = x * CELL_SIZE + (CELL_SIZE - contentMetrics.stringWidth(contentMaker)) / 2;
-        g2d.drawString(contentMaker, contentX, y * CELL_SIZE + CONTAINER_HEIGHT + CONTENT_Y_OFFSET * 3);
+        g2d.drawString(contentMaker, layout.centeredX(x, renderCache.makerWidth(contentMaker, contentMetrics)), layout.makerBaseline(y));
     }
 
     /**
@@ -236,7 +321,26 @@ public class CalendarImageGenerator {
         }
 
         // Save the image as PNG
-        ImageIO.write(image, "PNG", outputFile);
+        if (indexedPng) {
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(outputFile), 1 << 16)) {
+                encode(image, out);
+            }
+        } else {
+            ImageIO.write(image, "PNG", outputFile);
+        }
+    }
+
+    /**
+     * Encodes the image as PNG, with the same bytes {@link #generateCalendarImage} writes to a file.
+     */
+    void encode(BufferedImage image, OutputStream out) throws IOException {
+        if (indexedPng) {
+            PngEncoder encoder = encoders.get();
+            encoder.setCompressionLevel(compressionLevel);
+            encoder.encode(image, renderCache.palette(), out);
+        } else {
+            ImageIO.write(image, "PNG", out);
+        }
     }
 
     static void generateImage(Config config, Schedule schedule, YearMonth yearMonth) throws IOException {
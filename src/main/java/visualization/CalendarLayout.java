@@ -0,0 +1,100 @@
+package visualization;
+
+import java.time.DayOfWeek;
+import java.time.YearMonth;
+
+/**
+ * Geometry and labels of a monthly calendar, shared by every {@link CalendarRenderer} so they all place things in
+ * the same spot: a title row, a days-of-week header starting at the configured first weekday, then a grid of
+ * {@value #NUM_COLUMNS} by {@value #NUM_ROWS} day cells. Coordinates are in pixels from the top left corner; text
+ * positions are baselines.
+ */
+public final class CalendarLayout {
+
+    public static final int CELL_SIZE = 140;
+    public static final int TITLE_HEIGHT = 80;
+    public static final int HEADER_HEIGHT = 50;
+    public static final int CONTAINER_HEIGHT = TITLE_HEIGHT + HEADER_HEIGHT;
+    public static final int NUM_COLUMNS = 7; // 7 days of the week
+    public static final int NUM_ROWS = 6; // Maximum 6 rows for a month
+    public static final int WIDTH = CELL_SIZE * NUM_COLUMNS;
+    public static final int HEIGHT = (CELL_SIZE * NUM_ROWS) + CONTAINER_HEIGHT;
+    public static final int CONTENT_Y_OFFSET = 40;
+
+    private static final String[] MONTH_NAMES = {"Gennaio", "Febbraio", "Marzo", "Aprile", "Maggio", "Giugno", "Luglio", "Agosto", "Settembre", "Ottobre", "Novembre", "Dicembre"};
+    private static final String[] DAY_NAMES = {"Lunedì", "Martedì", "Mercoledì", "Giovedì", "Venerdì", "Sabato", "Domenica"};
+
+    private final DayOfWeek firstWeekday;
+    private final String[] headerLabels = new String[NUM_COLUMNS];
+
+    public CalendarLayout(DayOfWeek firstWeekday) {
+        this.firstWeekday = firstWeekday;
+        // Shift the days of week so the header starts at the configured first day
+        for (int i = 0; i < NUM_COLUMNS; i++) {
+            headerLabels[i] = DAY_NAMES[(i + firstWeekday.getValue() - 1) % 7];
+        }
+    }
+
+    public DayOfWeek firstWeekday() {
+        return firstWeekday;
+    }
+
+    public String title(YearMonth yearMonth) {
+        return String.format("Calendario RCY %s %d", MONTH_NAMES[yearMonth.getMonthValue() - 1], yearMonth.getYear());
+    }
+
+    public int titleBaseline() {
+        return TITLE_HEIGHT / 3 * 2;
+    }
+
+    public String headerLabel(int column) {
+        return headerLabels[column];
+    }
+
+    public int headerBaseline() {
+        return TITLE_HEIGHT + HEADER_HEIGHT / 3 * 2;
+    }
+
+    /**
+     * Number of cells before the first day of the month. A month that starts on the first weekday starts on the
+     * second row, as it always has.
+     */
+    public int offset(YearMonth yearMonth) {
+        return 7 - (firstWeekday.getValue() - yearMonth.atDay(1).getDayOfWeek().getValue() + 7) % 7;
+    }
+
+    public int column(int offset, int day) {
+        return (day - 1 + offset) % NUM_COLUMNS;
+    }
+
+    public int row(int offset, int day) {
+        return (day - 1 + offset) / NUM_COLUMNS;
+    }
+
+    public int cellX(int column) {
+        return column * CELL_SIZE;
+    }
+
+    public int cellY(int row) {
+        return row * CELL_SIZE + CONTAINER_HEIGHT;
+    }
+
+    /**
+     * Left edge of a text of the given width centered in a column.
+     */
+    public int centeredX(int column, int textWidth) {
+        return column * CELL_SIZE + (CELL_SIZE - textWidth) / 2;
+    }
+
+    public int dayBaseline(int row) {
+        return cellY(row) + CONTENT_Y_OFFSET;
+    }
+
+    public int typeBaseline(int row) {
+        return cellY(row) + CONTENT_Y_OFFSET * 2;
+    }
+
+    public int makerBaseline(int row) {
+        return cellY(row) + CONTENT_Y_OFFSET * 3;
+    }
+}
@@ -0,0 +1,77 @@
+package visualization;
+
+import schedule_manager.Type;
+
+import java.awt.FontMetrics;
+import java.awt.image.BufferedImage;
+import java.util.*;
+
+/**
+ * What a {@link CalendarImageGenerator} draws the same way every month for a given config: the background with the
+ * days-of-week header, the widths of day numbers, type names and makers' names used to center them, and the palette
+ * for indexed PNG output.
+ * Built once per config; read-only afterwards, so threads drawing different months can share it.
+ */
+final class CalendarRenderCache {
+
+    private static final int MAX_DAYS = 31;
+
+    private final BufferedImage staticLayer;
+    private final String[] dayLabels = new String[MAX_DAYS + 1];
+    private final int[] dayWidths = new int[MAX_DAYS + 1];
+    private final int[] typeWidths = new int[Type.values().length];
+    private final Map<String, Integer> makerWidths = new HashMap<>();
+    private final int[] palette;
+
+    /**
+     * @param staticLayer    a full-size image with the background and the header already drawn
+     * @param dateMetrics    metrics used to center day numbers and type names
+     * @param contentMetrics metrics used to center makers' names
+     * @param palette        see {@link PngEncoder#rampPalette}
+     */
+    CalendarRenderCache(BufferedImage staticLayer, FontMetrics dateMetrics, FontMetrics contentMetrics, List<String> makers, int[] palette) {
+        this.staticLayer = staticLayer;
+        this.palette = palette;
+        for (int day = 1; day <= MAX_DAYS; day++) {
+            dayLabels[day] = String.valueOf(day);
+            dayWidths[day] = dateMetrics.stringWidth(dayLabels[day]);
+        }
+        for (Type type : Type.values()) {
+            typeWidths[type.ordinal()] = dateMetrics.stringWidth(type.name());
+        }
+        for (String maker : makers) {
+            makerWidths.put(maker, contentMetrics.stringWidth(maker));
+        }
+    }
+
+    /**
+     * Copies the background and header into {@code image}, replacing all of its pixels.
+     */
+    void paintStaticLayer(BufferedImage image) {
+        image.getRaster().setDataElements(0, 0, staticLayer.getRaster());
+    }
+
+    int[] palette() {
+        return palette;
+    }
+
+    String dayLabel(int day) {
+        return dayLabels[day];
+    }
+
+    int dayWidth(int day) {
+        return dayWidths[day];
+    }
+
+    int typeWidth(Type type) {
+        return typeWidths[type.ordinal()];
+    }
+
+    /**
+     * Returns the width of a maker's name, measuring names that are not in the config with {@code contentMetrics}.
+     */
+    int makerWidth(String maker, FontMetrics contentMetrics) {
+        Integer width = makerWidths.get(maker);
+        return width != null ? width : contentMetrics.stringWidth(maker);
+    }
+}
@@ -0,0 +1,213 @@
+package visualization;
+
+import schedule_manager.Content;
+import schedule_manager.ScheduleStore;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Renders many months with a {@link CalendarRenderer} in overlapping stages: rendering on a bounded pool and file
+ * writes on a single thread. A {@link CalendarImageGenerator} is split further into drawing and PNG encoding on a
+ * second pool; each drawing task gets an image of its own from a small pool, which also limits how many rendered
+ * months wait for encoding. Files are byte-identical to rendering each month on its own. Months the
+ * {@link RenderManifest} reports as unchanged are skipped.
+ * <p>
+ * The renderer's config must not be reloaded while months are being rendered.
+ */
+public class CalendarRenderPipeline implements AutoCloseable {
+
+    private final CalendarRenderer renderer;
+    // Set when the renderer is a raster one, whose drawing and encoding run as separate stages
+    private final CalendarImageGenerator generator;
+    private final ExecutorService drawPool;
+    private final ExecutorService encodePool;
+    private final ExecutorService writer;
+    private final BlockingQueue<BufferedImage> freeImages;
+    private final int maxImages;
+    private final AtomicInteger imagesCreated = new AtomicInteger();
+    private volatile RenderManifest renderManifest;
+
+    public CalendarRenderPipeline(CalendarRenderer renderer) {
+        this(renderer, Runtime.getRuntime().availableProcessors());
+    }
+
+    public CalendarRenderPipeline(CalendarRenderer renderer, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        this.renderer = renderer;
+        this.generator = renderer instanceof CalendarImageGenerator raster ? raster : null;
+        this.drawPool = Executors.newFixedThreadPool(parallelism, daemonThreads("calendar-draw"));
+        this.encodePool = Executors.newFixedThreadPool(parallelism, daemonThreads("calendar-encode"));
+        this.writer = Executors.newSingleThreadExecutor(daemonThreads("calendar-write"));
+        this.maxImages = parallelism * 2;
+        this.freeImages = new ArrayBlockingQueue<>(maxImages);
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Skips months whose output file was rendered, according to {@code renderManifest}, from the same entries, config
+     * and renderer version. Null renders every month.
+     */
+    public void setRenderManifest(RenderManifest renderManifest) {
+        this.renderManifest = renderManifest;
+    }
+
+    /**
+     * Queues one month for rendering to {@code output}. The month's entries are read from {@code schedule} before
+     * this method returns, so the schedule may change afterwards.
+     */
+    public CompletableFuture<Path> submit(Map<LocalDate, Content> schedule, YearMonth month, Path output) {
+        Content[] days = ScheduleStore.month(schedule, month);
+        RenderManifest manifest = renderManifest;
+        String hash = manifest == null ? null : renderer.renderHash(month, days);
+        if (manifest != null && manifest.isCurrent(month, hash, output)) {
+            System.out.println("Calendar image unchanged: " + output);
+            return CompletableFuture.completedFuture(output);
+        }
+
+        CompletableFuture<byte[]> rendered = generator != null
+                ? CompletableFuture.supplyAsync(() -> draw(month, days), drawPool).thenApplyAsync(this::encode, encodePool)
+                : CompletableFuture.supplyAsync(() -> render(month, days), drawPool);
+        return rendered.thenApplyAsync(document -> write(document, output, month, manifest, hash), writer);
+    }
+
+    /**
+     * Renders every month from {@code start} to {@code end} inclusive and waits for all files to be written.
+     *
+     * @return the written files, in month order
+     * @throws IOException if a month could not be rendered or written; the other months are still completed
+     */
+    public List<Path> renderAll(Map<LocalDate, Content> schedule, YearMonth start, YearMonth end, Function<YearMonth, Path> outputFor) throws IOException {
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("Start month must be before or equal to end month");
+        }
+
+        List<CompletableFuture<Path>> futures = new ArrayList<>();
+        for (YearMonth month = start; !month.isAfter(end); month = month.plusMonths(1)) {
+            futures.add(submit(schedule, month, outputFor.apply(month)));
+        }
+
+        List<Path> written = new ArrayList<>(futures.size());
+        IOException failure = null;
+        for (CompletableFuture<Path> future : futures) {
+            try {
+                written.add(future.join());
+            } catch (CompletionException e) {
+                IOException cause = e.getCause() instanceof UncheckedIOException unchecked
+                        ? unchecked.getCause()
+                        : new IOException("Couldn't render calendar", e.getCause());
+                if (failure == null) {
+                    failure = cause;
+                } else {
+                    failure.addSuppressed(cause);
+                }
+            }
+        }
+        if (failure != null) throw failure;
+        return written;
+    }
+
+    private byte[] render(YearMonth month, Content[] days) {
+        try {
+            ByteArrayOutputStream document = new ByteArrayOutputStream(1 << 16);
+            renderer.render(month, days, document);
+            return document.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private BufferedImage draw(YearMonth month, Content[] days) {
+        BufferedImage image = acquireImage();
+        try {
+            generator.drawMonth(image, month, days);
+            return image;
+        } catch (RuntimeException e) {
+            freeImages.offer(image);
+            throw e;
+        }
+    }
+
+    private BufferedImage acquireImage() {
+        BufferedImage image = freeImages.poll();
+        if (image != null) return image;
+        if (imagesCreated.getAndIncrement() < maxImages) {
+            return generator.createBlankImage();
+        }
+        try {
+            // Wait for the encoders to catch up
+            return freeImages.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for an image buffer");
+        }
+    }
+
+    private byte[] encode(BufferedImage image) {
+        try {
+            ByteArrayOutputStream png = new ByteArrayOutputStream(1 << 16);
+            generator.encode(image, png);
+            return png.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            freeImages.offer(image);
+        }
+    }
+
+    private Path write(byte[] document, Path output, YearMonth month, RenderManifest manifest, String hash) {
+        try {
+            Path parent = output.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Files.write(output, document);
+            if (manifest != null) {
+                manifest.record(month, hash, output);
+            }
+            System.out.println("Calendar image saved to: " + output);
+            return output;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Stops the stages after the queued months are done.
+     */
+    @Override
+    public void close() {
+        try {
+            // In stage order: a later stage must accept the work of an earlier one until that one is done
+            for (ExecutorService stage : List.of(drawPool, encodePool, writer)) {
+                stage.shutdown();
+                stage.awaitTermination(1, TimeUnit.MINUTES);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            drawPool.shutdownNow();
+            encodePool.shutdownNow();
+            writer.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package visualization;
+
+import schedule_manager.Content;
+import schedule_manager.ScheduleStore;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Map;
+
+/**
+ * Turns one month of a schedule into a calendar document. Renderers draw the same parts, title, days-of-week header,
+ * day cells and their content, at the positions given by a {@link CalendarLayout}.
+ */
+public interface CalendarRenderer {
+
+    /**
+     * File extension of the rendered documents, without the dot.
+     */
+    String extension();
+
+    /**
+     * Writes the calendar of {@code yearMonth} to {@code out}, leaving it open.
+     *
+     * @param days the month's entries by day of month, as returned by {@link ScheduleStore#month}
+     */
+    void render(YearMonth yearMonth, Content[] days, OutputStream out) throws IOException;
+
+    /**
+     * Returns a digest of everything the document for {@code yearMonth} depends on, for {@link RenderManifest}:
+     * equal hashes mean identical output.
+     */
+    String renderHash(YearMonth yearMonth, Content[] days);
+
+    /**
+     * Re-reads the config after it changed, e.g. from a {@code HotReloader} config listener.
+     */
+    void reloadConfig();
+
+    /**
+     * Renders {@code yearMonth} of {@code schedule} to a file, creating its directory if needed.
+     */
+    default Path render(Map<LocalDate, Content> schedule, YearMonth yearMonth, Path output) throws IOException {
+        Path parent = output.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(output), 1 << 16)) {
+            render(yearMonth, ScheduleStore.month(schedule, yearMonth), out);
+        }
+        return output;
+    }
+}
@@ -0,0 +1,200 @@
+package visualization;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.*;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes images as 8-bit indexed-color PNGs. Every pixel is mapped to the nearest color of a palette of at most 256
+ * entries, so the output is lossless for images that only use palette colors and approximate otherwise.
+ * <p>
+ * Calendars consist of flat fills plus black text and borders antialiased over them, so all their pixels lie on the
+ * ramps from each fill color to black: {@link #rampPalette} builds a palette from those.
+ * <p>
+ * An encoder keeps its deflater and buffers between images and is not thread-safe; use one per thread.
+ */
+public final class PngEncoder {
+
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final int MAX_PALETTE_SIZE = 256;
+    private static final int COLOR_TYPE_INDEXED = 3;
+
+    private final Deflater deflater;
+    private final CRC32 crc = new CRC32();
+    private final byte[] chunkHeader = new byte[8];
+    private final byte[] checksum = new byte[4];
+    private final byte[] compressed = new byte[1 << 16];
+    private byte[] raw = new byte[0];
+    private int[] row = new int[0];
+
+    // Nearest palette index by RGB, valid for lastPalette only
+    private final Map<Integer, Integer> nearest = new HashMap<>();
+    private int[] lastPalette;
+
+    /**
+     * @param compressionLevel a {@link Deflater} level from 0 (none) to 9 (best), or {@link Deflater#DEFAULT_COMPRESSION}
+     */
+    public PngEncoder(int compressionLevel) {
+        this.deflater = new Deflater();
+        setCompressionLevel(compressionLevel);
+    }
+
+    public void setCompressionLevel(int compressionLevel) {
+        if (compressionLevel != Deflater.DEFAULT_COMPRESSION && (compressionLevel < 0 || compressionLevel > 9)) {
+            throw new IllegalArgumentException("Compression level must be between 0 and 9, or -1 for the default");
+        }
+        deflater.setLevel(compressionLevel);
+    }
+
+    /**
+     * Builds a palette of black plus, for each color, a ramp of shades from that color down to black, sharing the
+     * 256 entries evenly.
+     */
+    public static int[] rampPalette(Collection<Color> colors) {
+        Set<Integer> bases = new LinkedHashSet<>();
+        for (Color color : colors) {
+            int rgb = color.getRGB() & 0xFFFFFF;
+            if (rgb != 0) bases.add(rgb);
+        }
+        int steps = Math.max(1, (MAX_PALETTE_SIZE - 1) / Math.max(1, bases.size()));
+
+        Set<Integer> palette = new LinkedHashSet<>();
+        palette.add(0);
+        // Exact colors first, so they survive if there are too many to fit
+        palette.addAll(bases);
+        for (int step = steps - 1; step >= 1; step--) {
+            for (int base : bases) {
+                palette.add(shade(base, (double) step / steps));
+            }
+        }
+        return palette.stream().limit(MAX_PALETTE_SIZE).mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int shade(int rgb, double factor) {
+        int r = (int) Math.round(((rgb >> 16) & 0xFF) * factor);
+        int g = (int) Math.round(((rgb >> 8) & 0xFF) * factor);
+        int b = (int) Math.round((rgb & 0xFF) * factor);
+        return (r << 16) | (g << 8) | b;
+    }
+
+    /**
+     * Writes {@code image} to {@code out} using {@code palette}, an array of at most 256 RGB colors. Alpha is ignored.
+     */
+    public void encode(BufferedImage image, int[] palette, OutputStream out) throws IOException {
+        if (palette.length == 0 || palette.length > MAX_PALETTE_SIZE) {
+            throw new IllegalArgumentException("Palette must have between 1 and 256 colors");
+        }
+        if (palette != lastPalette) {
+            nearest.clear();
+            lastPalette = palette;
+        }
+
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int length = (width + 1) * height;
+        if (raw.length < length) raw = new byte[length];
+        if (row.length < width) row = new int[width];
+
+        // Each row is a filter type byte (0, none, as recommended for indexed images) followed by palette indexes
+        boolean packedInts = image.getType() == BufferedImage.TYPE_INT_ARGB || image.getType() == BufferedImage.TYPE_INT_RGB;
+        int position = 0;
+        int lastRgb = -1;
+        int lastIndex = 0;
+        for (int y = 0; y < height; y++) {
+            if (packedInts) {
+                image.getRaster().getDataElements(0, y, width, 1, row);
+            } else {
+                image.getRGB(0, y, width, 1, row, 0, width);
+            }
+            raw[position++] = 0;
+            for (int x = 0; x < width; x++) {
+                int rgb = row[x] & 0xFFFFFF;
+                if (rgb != lastRgb) {
+                    lastRgb = rgb;
+                    lastIndex = indexOf(rgb, palette);
+                }
+                raw[position++] = (byte) lastIndex;
+            }
+        }
+
+        out.write(SIGNATURE);
+        byte[] header = new byte[13];
+        putInt(header, 0, width);
+        putInt(header, 4, height);
+        header[8] = 8;
+        header[9] = COLOR_TYPE_INDEXED;
+        writeChunk(out, "IHDR", header, header.length);
+
+        byte[] plte = new byte[palette.length * 3];
+        for (int i = 0; i < palette.length; i++) {
+            plte[i * 3] = (byte) (palette[i] >> 16);
+            plte[i * 3 + 1] = (byte) (palette[i] >> 8);
+            plte[i * 3 + 2] = (byte) palette[i];
+        }
+        writeChunk(out, "PLTE", plte, plte.length);
+
+        deflater.reset();
+        deflater.setInput(raw, 0, length);
+        deflater.finish();
+        while (!deflater.finished()) {
+            int count = deflater.deflate(compressed);
+            if (count > 0) {
+                writeChunk(out, "IDAT", compressed, count);
+            }
+        }
+        writeChunk(out, "IEND", compressed, 0);
+    }
+
+    private int indexOf(int rgb, int[] palette) {
+        Integer index = nearest.get(rgb);
+        if (index == null) {
+            index = nearestIndex(rgb, palette);
+            nearest.put(rgb, index);
+        }
+        return index;
+    }
+
+    private static int nearestIndex(int rgb, int[] palette) {
+        int r = (rgb >> 16) & 0xFF, g = (rgb >> 8) & 0xFF, b = rgb & 0xFF;
+        int best = 0;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int i = 0; i < palette.length; i++) {
+            int dr = r - ((palette[i] >> 16) & 0xFF);
+            int dg = g - ((palette[i] >> 8) & 0xFF);
+            int db = b - (palette[i] & 0xFF);
+            int distance = dr * dr + dg * dg + db * db;
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = i;
+                if (distance == 0) break;
+            }
+        }
+        return best;
+    }
+
+    private void writeChunk(OutputStream out, String type, byte[] data, int length) throws IOException {
+        putInt(chunkHeader, 0, length);
+        for (int i = 0; i < 4; i++) {
+            chunkHeader[4 + i] = (byte) type.charAt(i);
+        }
+        out.write(chunkHeader, 0, 8);
+        out.write(data, 0, length);
+
+        crc.reset();
+        crc.update(chunkHeader, 4, 4);
+        crc.update(data, 0, length);
+        putInt(checksum, 0, (int) crc.getValue());
+        out.write(checksum);
+    }
+
+    private static void putInt(byte[] target, int offset, int value) {
+        target[offset] = (byte) (value >>> 24);
+        target[offset + 1] = (byte) (value >>> 16);
+        target[offset + 2] = (byte) (value >>> 8);
+        target[offset + 3] = (byte) value;
+    }
+}
@@ -0,0 +1,65 @@
+package visualization;
+
+import config.CompiledConfig;
+import schedule_manager.Content;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.YearMonth;
+import java.util.HexFormat;
+
+/**
+ * Digests that {@link CalendarRenderer}s hand to a {@link RenderManifest}: SHA-256 over the output format, the
+ * renderer version and options, the first weekday, font, people and colors, and the month's entries.
+ */
+final class RenderHash {
+
+    private RenderHash() {
+    }
+
+    /**
+     * @param options renderer settings that change the output, such as PNG compression
+     */
+    static String of(String format, int version, CompiledConfig compiled, YearMonth yearMonth, Content[] days, int... options) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        try (DataOutputStream data = new DataOutputStream(bytes)) {
+            data.writeUTF(format);
+            data.writeInt(version);
+            data.writeInt(options.length);
+            for (int option : options) {
+                data.writeInt(option);
+            }
+            data.writeInt(yearMonth.getYear());
+            data.writeInt(yearMonth.getMonthValue());
+            data.writeInt(compiled.firstWeekday().getValue());
+            data.writeUTF(String.valueOf(compiled.fontName()));
+            data.writeInt(compiled.people().size());
+            for (int id = 0; id < compiled.people().size(); id++) {
+                data.writeUTF(compiled.people().get(id));
+                data.writeInt(compiled.colorOf(id).getRGB());
+            }
+            for (Content content : days) {
+                if (content == null) {
+                    data.writeByte(-1);
+                } else {
+                    data.writeByte(content.getType().ordinal());
+                    data.writeUTF(String.valueOf(content.getMaker()));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return HexFormat.of().formatHex(digest.digest(bytes.toByteArray()));
+    }
+}
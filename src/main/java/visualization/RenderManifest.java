@@ -0,0 +1,82 @@
+package visualization;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import utils.Json;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.YearMonth;
+import java.util.*;
+
+/**
+ * Remembers, per output file, the month it shows and the hash of what it was rendered from, so unchanged months can
+ * be skipped. Keying by file keeps PNG and SVG renders of the same month apart. The hash covers the month's entries,
+ * the colors, font and first weekday and the renderer version; see {@link CalendarRenderer#renderHash}.
+ * <p>
+ * Kept as a small JSON file, rewritten atomically whenever a month is recorded. Thread-safe.
+ */
+public class RenderManifest {
+
+    record Rendered(YearMonth month, String hash) {
+    }
+
+    record Contents(int version, TreeMap<String, Rendered> outputs) {
+    }
+
+    private static final int VERSION = 2;
+    private static final ObjectReader READER = Json.MAPPER.readerFor(Contents.class);
+    private static final ObjectWriter WRITER = Json.MAPPER.writerFor(Contents.class).withDefaultPrettyPrinter();
+
+    private final Path file;
+    private final TreeMap<String, Rendered> outputs = new TreeMap<>();
+
+    /**
+     * Opens the manifest at {@code file}. A missing or unreadable manifest starts empty, so every month is rendered.
+     */
+    public RenderManifest(Path file) {
+        this.file = file;
+        if (!Files.exists(file)) return;
+        try {
+            Contents contents = READER.readValue(file.toFile());
+            if (contents.version() == VERSION && contents.outputs() != null) {
+                outputs.putAll(contents.outputs());
+            }
+        } catch (IOException e) {
+            System.err.println("Ignoring unreadable render manifest " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Whether {@code output} exists and was rendered for {@code month} from content with this hash.
+     */
+    public synchronized boolean isCurrent(YearMonth month, String hash, Path output) {
+        Rendered rendered = outputs.get(output.toString());
+        return rendered != null
+                && rendered.month().equals(month)
+                && rendered.hash().equals(hash)
+                && Files.exists(output);
+    }
+
+    /**
+     * Records that {@code output} was rendered for {@code month} from content with this hash, and saves the manifest.
+     */
+    public synchronized void record(YearMonth month, String hash, Path output) throws IOException {
+        outputs.put(output.toString(), new Rendered(month, hash));
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            WRITER.writeValue(temp.toFile(), new Contents(VERSION, outputs));
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public Path getPath() {
+        return file;
+    }
+}
@@ -0,0 +1,197 @@
+package visualization;
+
+import config.CompiledConfig;
+import config.Config;
+import schedule_manager.Content;
+import schedule_manager.Schedule;
+
+import java.awt.Color;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.YearMonth;
+
+/**
+ * {@link CalendarRenderer} that streams SVG text straight to the output, with no raster buffer and no fonts needed
+ * on the rendering machine: the viewer lays the text out. Cells, baselines and the first weekday offset come from
+ * the same {@link CalendarLayout} as the PNG calendars; text is centered with {@code text-anchor} instead of
+ * measured glyph widths.
+ */
+public class SvgCalendarRenderer implements CalendarRenderer {
+
+    /**
+     * Part of every render hash, see {@link CalendarImageGenerator#RENDERER_VERSION}.
+     */
+    static final int RENDERER_VERSION = 1;
+
+    private static final String EMPTY_DAY_COLOR = hex(Color.LIGHT_GRAY);
+
+    private final Config config;
+    private CompiledConfig compiled;
+    private CalendarLayout layout;
+    private String[] makerColors;
+    private String style;
+
+    public SvgCalendarRenderer(Config config) {
+        this.config = config;
+        reloadConfig();
+    }
+
+    @Override
+    public void reloadConfig() {
+        this.compiled = config.compiled();
+        this.layout = new CalendarLayout(compiled.firstWeekday());
+        this.makerColors = new String[compiled.people().size()];
+        for (int id = 0; id < makerColors.length; id++) {
+            makerColors[id] = hex(compiled.colorOf(id));
+        }
+
+        // Same sizes as the PNG fonts, in pixels
+        String family = compiled.fontName() == null ? "sans-serif" : cssString(compiled.fontName()) + ", sans-serif";
+        this.style = "text{font-family:" + family + ";font-weight:bold;text-anchor:middle}"
+                + ".title{font-size:40px}.header{font-size:26px}.day{font-size:26px}"
+                + ".type{font-size:16px}.maker{font-size:23px}";
+    }
+
+    @Override
+    public String extension() {
+        return "svg";
+    }
+
+    @Override
+    public void render(YearMonth yearMonth, Content[] days, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 14);
+        writer.write("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"" + CalendarLayout.WIDTH
+                + "\" height=\"" + CalendarLayout.HEIGHT + "\" viewBox=\"0 0 " + CalendarLayout.WIDTH + " " + CalendarLayout.HEIGHT + "\">\n");
+        writer.write("<style>" + style + "</style>\n");
+        writer.write("<rect width=\"100%\" height=\"100%\" fill=\"#FFFFFF\"/>\n");
+
+        drawTitle(writer, yearMonth);
+        drawDaysOfWeekHeader(writer);
+        drawCalendarDays(writer, yearMonth, days);
+
+        writer.write("</svg>\n");
+        // Flush without closing the caller's stream
+        writer.flush();
+    }
+
+    @Override
+    public String renderHash(YearMonth yearMonth, Content[] days) {
+        return RenderHash.of(extension(), RENDERER_VERSION, compiled, yearMonth, days);
+    }
+
+    private void drawTitle(Writer writer, YearMonth yearMonth) throws IOException {
+        text(writer, "title", CalendarLayout.WIDTH / 2, layout.titleBaseline(), layout.title(yearMonth));
+    }
+
+    private void drawDaysOfWeekHeader(Writer writer) throws IOException {
+        for (int i = 0; i < CalendarLayout.NUM_COLUMNS; i++) {
+            text(writer, "header", centerX(i), layout.headerBaseline(), layout.headerLabel(i));
+        }
+    }
+
+    private void drawCalendarDays(Writer writer, YearMonth yearMonth, Content[] days) throws IOException {
+        int offset = layout.offset(yearMonth);
+        for (int day = 1; day <= yearMonth.lengthOfMonth(); day++) {
+            int x = layout.column(offset, day);
+            int y = layout.row(offset, day);
+            Content content = days[day - 1];
+
+            drawDayCell(writer, x, y, day, content == null ? EMPTY_DAY_COLOR : colorOf(content.getMaker()));
+            if (content != null) {
+                drawContent(writer, x, y, content);
+            }
+        }
+    }
+
+    private void drawDayCell(Writer writer, int x, int y, int day, String backgroundColor) throws IOException {
+        writer.write("<rect x=\"" + layout.cellX(x) + "\" y=\"" + layout.cellY(y)
+                + "\" width=\"" + CalendarLayout.CELL_SIZE + "\" height=\"" + CalendarLayout.CELL_SIZE
+                + "\" fill=\"" + backgroundColor + "\" stroke=\"#000000\"/>\n");
+        text(writer, "day", centerX(x), layout.dayBaseline(y), String.valueOf(day));
+    }
+
+    private void drawContent(Writer writer, int x, int y, Content content) throws IOException {
+        text(writer, "type", centerX(x), layout.typeBaseline(y), content.getType().name());
+        text(writer, "maker", centerX(x), layout.makerBaseline(y), content.getMaker());
+    }
+
+    private int centerX(int column) {
+        return layout.cellX(column) + CalendarLayout.CELL_SIZE / 2;
+    }
+
+    private String colorOf(String maker) {
+        int id = compiled.idOf(maker);
+        // Makers missing from the config get the empty day color
+        return id < 0 ? EMPTY_DAY_COLOR : makerColors[id];
+    }
+
+    private static void text(Writer writer, String styleClass, int x, int y, String text) throws IOException {
+        writer.write("<text class=\"" + styleClass + "\" x=\"" + x + "\" y=\"" + y + "\">");
+        writer.write(escape(text));
+        writer.write("</text>\n");
+    }
+
+    private static String hex(Color color) {
+        return String.format("#%06X", color.getRGB() & 0xFFFFFF);
+    }
+
+    /**
+     * Quotes {@code text} as a CSS string. Quotes, backslashes, markup and control characters become hex escapes, so
+     * the result is also safe inside the {@code <style>} element.
+     */
+    private static String cssString(String text) {
+        StringBuilder builder = new StringBuilder(text.length() + 2).append('\'');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x20 || c == 0x7F || c == '\\' || c == '\'' || c == '"' || c == '<' || c == '>' || c == '&') {
+                // The space ends the escape, so a hex digit after it is not read as part of it
+                builder.append('\\').append(Integer.toHexString(c)).append(' ');
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.append('\'').toString();
+    }
+
+    private static String escape(String text) {
+        if (text == null) return "";
+        StringBuilder builder = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            String replacement = switch (c) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '"' -> "&quot;";
+                case '\'' -> "&apos;";
+                default -> null;
+            };
+            if (replacement != null && builder == null) {
+                builder = new StringBuilder(text.length() + 16).append(text, 0, i);
+            }
+            if (builder != null) {
+                if (replacement != null) {
+                    builder.append(replacement);
+                } else {
+                    builder.append(c);
+                }
+            }
+        }
+        return builder == null ? text : builder.toString();
+    }
+
+    public static void main(String[] args) {
+        try {
+            Schedule schedule = new Schedule("schedule_rcy.json");
+            Config config = new Config("config_rcy.json");
+            YearMonth yearMonth = YearMonth.of(2025, 2);
+
+            Path output = Path.of(String.format("schedule_images/%s_%d_calendar.svg", yearMonth.getMonth().toString().toLowerCase(), yearMonth.getYear()));
+            new SvgCalendarRenderer(config).render(schedule.getSchedule(), yearMonth, output);
+            System.out.println("Calendar saved to: " + output);
+        } catch (Exception e) {
+            System.err.println("Couldn't generate calendar correctly: \n\t" + e.getMessage());
+        }
+    }
+}